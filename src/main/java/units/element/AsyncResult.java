@@ -0,0 +1,423 @@
+package units.element;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * a Result computed asynchronously.<br>
+ * The underlying future always completes normally with a Result, errors of stages become failure Results.
+ * Stages run on the thread completing the previous one, no thread is blocked until {@link #join()}.
+ *
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-05-30
+ */
+public interface AsyncResult<T> {
+    CompletableFuture<Result<T>> toFuture();
+
+    default boolean isDone() {
+        return toFuture().isDone();
+    }
+
+    /**
+     * never throw error
+     */
+    <R> AsyncResult<R> map(Function<T, R> mapper);
+
+    AsyncResult<T> mapError(Function<Throwable, Throwable> mapper);
+
+    /**
+     * mapper is applied to present value, failure without value is passed through
+     */
+    <R> AsyncResult<R> flatMap(Function<T, AsyncResult<R>> mapper);
+
+    AsyncResult<T> onComplete(Consumer<Result<T>> consumer);
+
+    /**
+     * @return a result failed with {@link Deadline#toError()} if not completed before the deadline
+     */
+    AsyncResult<T> within(Deadline deadline);
+
+    /**
+     * block until completed
+     */
+    default Result<T> join() {
+        return toFuture().join();
+    }
+
+    /**
+     * block until completed or the deadline
+     */
+    default Result<T> join(Deadline deadline) {
+        try {
+            return toFuture().get(Math.max(0, deadline.remainingNanos()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            return Result.error(deadline.toError());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return Result.error(ex);
+        } catch (ExecutionException ex) {
+            return Result.error(ex.getCause());
+        }
+    }
+
+    static <T> AsyncResult<T> of(@NotNull CompletableFuture<Result<T>> future) {
+        return new Async<>(future.handle(Async::settle));
+    }
+
+    /**
+     * exceptional completion of the stage becomes failure
+     */
+    static <T> AsyncResult<T> from(@NotNull CompletionStage<T> stage) {
+        return new Async<>(stage.<Result<T>>handle((v, e) -> e != null ? Result.error(Async.unwrap(e))
+            : v == null ? Result.nothing() : Result.ok(v)).toCompletableFuture());
+    }
+
+    static <T> AsyncResult<T> completed(@NotNull Result<T> result) {
+        return new Async<>(CompletableFuture.completedFuture(result));
+    }
+
+    /**
+     * @see Result#async(Supplier, Executor)
+     */
+    static <T> AsyncResult<T> supply(@NotNull Supplier<T> supplier, @NotNull Executor executor) {
+        final CompletableFuture<Result<T>> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(Result.with(supplier));
+                } catch (Throwable ex) {
+                    future.complete(Result.error(ex));
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            future.complete(Result.error(ex));
+        }
+        return new Async<>(future);
+    }
+
+    /**
+     * hedge without interrupting the losing attempt
+     *
+     * @see #hedge(Supplier, long, Executor, AttemptListener, boolean)
+     */
+    static <T> AsyncResult<T> hedge(@NotNull Supplier<T> supplier, long delayNanos, @NotNull Executor executor,
+                                    @NotNull AttemptListener listener) {
+        return hedge(supplier, delayNanos, executor, listener, false);
+    }
+
+    /**
+     * run the supplier, start a second attempt if the first not completed after the delay.<br>
+     * the first success wins and the other attempt is cancelled,
+     * a failure before the hedge started is returned as is, otherwise the last failure is.<br>
+     * the hedge is submitted to the executor from the common pool, never from the timer thread.
+     *
+     * @param delayNanos    delay before the hedge, such as observed p95 latency
+     * @param interruptLoser interrupt the thread still running the losing attempt,
+     *                       only when the caller owns the threads of the executor
+     */
+    static <T> AsyncResult<T> hedge(@NotNull Supplier<T> supplier, long delayNanos, @NotNull Executor executor,
+                                    @NotNull AttemptListener listener, boolean interruptLoser) {
+        final Hedge<T> hedge = new Hedge<>(supplier, executor, listener, interruptLoser);
+        hedge.start(1);
+        hedge.schedule(delayNanos);
+        return new Async<>(hedge.out);
+    }
+
+    /**
+     * run the supplier until success or the policy gives up, waits between attempts are timers of
+     * {@link TickTimer#shared()}, no thread sleeps. Attempts after a wait are submitted to the executor
+     * from the common pool, never from the timer thread.
+     */
+    static <T> AsyncResult<T> retry(@NotNull Supplier<T> supplier, @NotNull RetryPolicy policy,
+                                    @NotNull Executor executor, @NotNull AttemptListener listener) {
+        final Retry<T> retry = new Retry<>(supplier, policy, executor, listener);
+        retry.attempt(1);
+        return new Async<>(retry.out);
+    }
+
+    /**
+     * all values in order, or the first failure. Completes as soon as any fails.
+     */
+    static <T> AsyncResult<List<T>> allOf(@NotNull Collection<? extends AsyncResult<? extends T>> results) {
+        final int n = results.size();
+        if (n == 0) return completed(Result.ok(new ArrayList<>()));
+        final CompletableFuture<Result<List<T>>> future = new CompletableFuture<>();
+        final Object[] values = new Object[n];
+        final AtomicInteger remain = new AtomicInteger(n);
+        int i = 0;
+        for (AsyncResult<? extends T> result : results) {
+            final int index = i++;
+            result.toFuture().thenAccept(r -> {
+                if (r.hasError()) {
+                    future.complete(Result.error(r.getError()));
+                    return;
+                }
+                values[index] = r.getValue();
+                if (remain.decrementAndGet() == 0) future.complete(Result.ok(Async.listOf(values)));
+            });
+        }
+        return new Async<>(future);
+    }
+
+    @SafeVarargs
+    static <T> AsyncResult<List<T>> allOf(@NotNull AsyncResult<? extends T>... results) {
+        final List<AsyncResult<? extends T>> list = new ArrayList<>(results.length);
+        for (AsyncResult<? extends T> result : results) list.add(result);
+        return allOf(list);
+    }
+
+    /**
+     * the first success with value, or the last failure when none has value.<br>
+     * a nothing Result does not win, it is returned only when all are nothing or failures and it comes last.
+     */
+    static <T> AsyncResult<T> anyOf(@NotNull Collection<? extends AsyncResult<? extends T>> results) {
+        if (results.isEmpty()) return completed(Result.error(Errors.notExists("no result to wait")));
+        final CompletableFuture<Result<T>> future = new CompletableFuture<>();
+        final AtomicInteger remain = new AtomicInteger(results.size());
+        for (AsyncResult<? extends T> result : results) {
+            result.toFuture().thenAccept(r -> {
+                if (!r.hasError() && r.isPresent()) future.complete(Async.cast(r));
+                else if (remain.decrementAndGet() == 0) future.complete(Async.cast(r));
+            });
+        }
+        return new Async<>(future);
+    }
+
+    @SafeVarargs
+    static <T> AsyncResult<T> anyOf(@NotNull AsyncResult<? extends T>... results) {
+        final List<AsyncResult<? extends T>> list = new ArrayList<>(results.length);
+        for (AsyncResult<? extends T> result : results) list.add(result);
+        return anyOf(list);
+    }
+
+    final class Async<T> implements AsyncResult<T> {
+        final CompletableFuture<Result<T>> future;
+
+        Async(CompletableFuture<Result<T>> future) {
+            this.future = future;
+        }
+
+        static <T> Result<T> settle(Result<T> result, Throwable error) {
+            if (error != null) return Result.error(unwrap(error));
+            return result == null ? Result.nothing() : result;
+        }
+
+        static Throwable unwrap(Throwable error) {
+            while ((error instanceof CompletionException || error instanceof ExecutionException)
+                && error.getCause() != null) error = error.getCause();
+            return error;
+        }
+
+        /**
+         * as {@link Result#with(Supplier)}, an {@link Error} is a failure too, so an attempt always completes
+         */
+        static <T> Result<T> call(Supplier<T> supplier) {
+            try {
+                return Result.with(supplier);
+            } catch (Throwable ex) {
+                return Result.error(ex);
+            }
+        }
+
+        /**
+         * leave the timer thread before touching a user executor, a caller runs executor would block all timers
+         */
+        static void offTimer(Runnable task) {
+            ForkJoinPool.commonPool().execute(task);
+        }
+
+        @SuppressWarnings("unchecked")
+        static <T> Result<T> cast(Result<? extends T> result) {
+            return (Result<T>) result;
+        }
+
+        @SuppressWarnings("unchecked")
+        static <T> List<T> listOf(Object[] values) {
+            final List<T> list = new ArrayList<>(values.length);
+            for (Object value : values) list.add((T) value);
+            return list;
+        }
+
+        @Override
+        public CompletableFuture<Result<T>> toFuture() {
+            return future;
+        }
+
+        @Override
+        public <R> AsyncResult<R> map(Function<T, R> mapper) {
+            return new Async<>(future.thenApply(r -> {
+                try {
+                    return r.map(mapper);
+                } catch (Exception ex) {
+                    return Result.error(ex);
+                }
+            }));
+        }
+
+        @Override
+        public AsyncResult<T> mapError(Function<Throwable, Throwable> mapper) {
+            return new Async<>(future.thenApply(r -> {
+                try {
+                    return r.mapError(mapper);
+                } catch (Exception ex) {
+                    return Result.error(ex);
+                }
+            }));
+        }
+
+        @Override
+        public <R> AsyncResult<R> flatMap(Function<T, AsyncResult<R>> mapper) {
+            return new Async<>(future.thenCompose(r -> {
+                if (r.getValue() == null) return CompletableFuture.completedFuture(
+                    r.hasError() ? Result.<R>error(r.getError()) : Result.<R>nothing());
+                try {
+                    return Objects.requireNonNull(mapper.apply(r.getValue()), "async mapping should not return null.")
+                        .toFuture();
+                } catch (Exception ex) {
+                    return CompletableFuture.completedFuture(Result.<R>error(ex));
+                }
+            }));
+        }
+
+        @Override
+        public AsyncResult<T> onComplete(Consumer<Result<T>> consumer) {
+            future.thenAccept(consumer);
+            return this;
+        }
+
+        @Override
+        public AsyncResult<T> within(Deadline deadline) {
+            if (future.isDone() || deadline.getTick() == Tick.Ticks.TicksMask) return this;
+            final CompletableFuture<Result<T>> bounded = new CompletableFuture<>();
+            if (deadline.isExpired()) {
+                bounded.complete(Result.error(deadline.toError()));
+                return new Async<>(bounded);
+            }
+            final TickTimer.Timeout timeout = TickTimer.shared().schedule(deadline.getTick(),
+                () -> bounded.complete(Result.error(deadline.toError())));
+            future.thenAccept(r -> {
+                timeout.cancel();
+                bounded.complete(r);
+            });
+            return new Async<>(bounded);
+        }
+    }
+
+    final class Hedge<T> {
+        final Supplier<T> supplier;
+        final Executor executor;
+        final AttemptListener listener;
+        final boolean interruptLoser;
+        final CompletableFuture<Result<T>> out = new CompletableFuture<>();
+        //region guarded by this
+        final FutureTask<?>[] tasks = new FutureTask<?>[2];
+        int started;
+        int failed;
+        TickTimer.Timeout timer;
+        //endregion
+
+        Hedge(Supplier<T> supplier, Executor executor, AttemptListener listener, boolean interruptLoser) {
+            this.supplier = supplier;
+            this.executor = executor;
+            this.listener = listener;
+            this.interruptLoser = interruptLoser;
+        }
+
+        void schedule(long delayNanos) {
+            final TickTimer.Timeout timeout = TickTimer.shared().schedule(delayNanos, TimeUnit.NANOSECONDS,
+                () -> Async.offTimer(() -> start(2)));
+            synchronized (this) {
+                timer = timeout;
+            }
+            out.whenComplete((r, e) -> timeout.cancel());
+        }
+
+        void start(int attempt) {
+            final FutureTask<Void> task = new FutureTask<>(() -> run(attempt), null);
+            synchronized (this) {
+                if (out.isDone()) return;
+                tasks[attempt - 1] = task;
+                started++;
+            }
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException ex) {
+                finish(attempt, Result.error(ex));
+            }
+        }
+
+        void run(int attempt) {
+            final long begin = System.nanoTime();
+            final Result<T> r = Async.call(supplier);
+            listener.onAttempt(attempt, System.nanoTime() - begin, r);
+            finish(attempt, r);
+        }
+
+        void finish(int attempt, Result<T> r) {
+            if (!r.hasError()) {
+                if (!out.complete(r)) return;
+                final FutureTask<?> loser;
+                synchronized (this) {
+                    loser = tasks[2 - attempt];
+                }
+                if (loser != null) loser.cancel(interruptLoser);
+                return;
+            }
+            synchronized (this) {
+                if (++failed < started) return;
+                // all started attempts failed, the hedge never starts after this
+                if (timer != null) timer.cancel();
+                out.complete(r);
+            }
+        }
+    }
+
+    final class Retry<T> {
+        final Supplier<T> supplier;
+        final RetryPolicy policy;
+        final Executor executor;
+        final AttemptListener listener;
+        final CompletableFuture<Result<T>> out = new CompletableFuture<>();
+
+        Retry(Supplier<T> supplier, RetryPolicy policy, Executor executor, AttemptListener listener) {
+            this.supplier = supplier;
+            this.policy = policy;
+            this.executor = executor;
+            this.listener = listener;
+        }
+
+        void attempt(int attempt) {
+            if (out.isDone()) return;
+            try {
+                executor.execute(() -> run(attempt));
+            } catch (RejectedExecutionException ex) {
+                out.complete(Result.error(ex));
+            }
+        }
+
+        void run(int attempt) {
+            if (out.isDone()) return;
+            final long begin = System.nanoTime();
+            final Result<T> r = Async.call(supplier);
+            listener.onAttempt(attempt, System.nanoTime() - begin, r);
+            if (!r.hasError() || attempt >= policy.getMaxAttempts() || !policy.shouldRetry(r.getError())) {
+                out.complete(r);
+                return;
+            }
+            final long delay = policy.delayNanos(attempt);
+            if (delay <= 0) attempt(attempt + 1);
+            else TickTimer.shared().schedule(delay, TimeUnit.NANOSECONDS,
+                () -> Async.offTimer(() -> attempt(attempt + 1)));
+        }
+    }
+}
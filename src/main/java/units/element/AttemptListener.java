@@ -0,0 +1,21 @@
+package units.element;
+
+/**
+ * Listener of each attempt of retried or hedged Results, called on the thread ran the attempt.
+ *
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-06-01
+ */
+@FunctionalInterface
+public interface AttemptListener {
+    AttemptListener NONE = (attempt, latencyNanos, outcome) -> {
+    };
+
+    /**
+     * @param attempt      attempt number from 1, for hedged 1 is the primary and 2 the hedge
+     * @param latencyNanos time of the attempt
+     * @param outcome      result of the attempt, failure if cancelled
+     */
+    void onAttempt(int attempt, long latencyNanos, Result<?> outcome);
+}
@@ -0,0 +1,209 @@
+package units.element;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static units.element.Tick.Ticks.TicksMask;
+
+/**
+ * A time budget as a deadline in ticks.<br>
+ * Checks read a {@link TimeSource}, {@link TimeSource#coarse()} by default, so they cost a volatile read
+ * and a subtraction. Pass the deadline down instead of a timeout, each layer may only shrink it.
+ *
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-05-30
+ */
+public interface Deadline extends Comparable<Deadline> {
+    /**
+     * never expires, never reads a clock
+     */
+    Deadline NONE = Never.INSTANCE;
+
+    /**
+     * @return deadline ticks without kind flag
+     */
+    long getTick();
+
+    TimeSource getSource();
+
+    /**
+     * @return nanos left, negative once expired, saturated to {@link Long#MAX_VALUE} or {@link Long#MIN_VALUE}
+     */
+    default long remainingNanos() {
+        final long left = getTick() - (getSource().tick() & TicksMask);
+        if (left > Long.MAX_VALUE / 100) return Long.MAX_VALUE;
+        return left < Long.MIN_VALUE / 100 ? Long.MIN_VALUE : left * 100;
+    }
+
+    default Duration remaining() {
+        return Duration.ofNanos(remainingNanos());
+    }
+
+    default boolean isExpired() {
+        return getTick() <= (getSource().tick() & TicksMask);
+    }
+
+    /**
+     * @return error of exceeded deadline, created by {@link Errors#timeout}
+     */
+    default Errors.TimeoutError toError() {
+        return Errors.timeout("deadline {} exceeded by {} ms", TickFormat.format(getTick()),
+            -(remainingNanos() / 1_000_000));
+    }
+
+    /**
+     * @throws Errors.TimeoutError if expired
+     */
+    default void check() {
+        if (isExpired()) throw toError();
+    }
+
+    /**
+     * @return the earlier one
+     */
+    default Deadline min(Deadline other) {
+        return other.getTick() < getTick() ? other : this;
+    }
+
+    /**
+     * @return this or a deadline after the timeout, which is earlier
+     */
+    default Deadline shrink(long timeout, TimeUnit unit) {
+        final long tick = (getSource().tick() & TicksMask) + unit.toNanos(timeout) / 100;
+        return tick < getTick() ? new Deadlines(tick, getSource()) : this;
+    }
+
+    /**
+     * complete the future with {@link #toError()} once expired, on {@link TickTimer#shared()}
+     *
+     * @return the same future
+     */
+    default <T> CompletableFuture<T> bound(CompletableFuture<T> future) {
+        if (future.isDone() || getTick() == TicksMask) return future;
+        if (isExpired()) {
+            future.completeExceptionally(toError());
+            return future;
+        }
+        final TickTimer.Timeout timeout = TickTimer.shared().schedule(getTick(),
+            () -> future.completeExceptionally(toError()));
+        future.whenComplete((v, e) -> timeout.cancel());
+        return future;
+    }
+
+    @Override
+    default int compareTo(Deadline o) {
+        return Long.compare(getTick(), o.getTick());
+    }
+
+    static Deadline after(long timeout, TimeUnit unit) {
+        return after(timeout, unit, TimeSource.coarse());
+    }
+
+    static Deadline after(Duration timeout) {
+        return after(timeout.toNanos(), TimeUnit.NANOSECONDS, TimeSource.coarse());
+    }
+
+    static Deadline after(long timeout, TimeUnit unit, TimeSource source) {
+        return new Deadlines((source.tick() & TicksMask) + unit.toNanos(timeout) / 100, source);
+    }
+
+    static Deadline at(Tick tick) {
+        return new Deadlines(tick.toLong() & TicksMask, TimeSource.coarse());
+    }
+
+    static Deadline at(long tick, TimeSource source) {
+        return new Deadlines(tick & TicksMask, source);
+    }
+
+    /**
+     * deadline of {@link #NONE}
+     */
+    final class Never implements Deadline {
+        static final Never INSTANCE = new Never();
+
+        private Never() {
+        }
+
+        @Override
+        public long getTick() {
+            return TicksMask;
+        }
+
+        /**
+         * the source of deadlines shrunk from this
+         */
+        @Override
+        public TimeSource getSource() {
+            return TimeSource.coarse();
+        }
+
+        @Override
+        public long remainingNanos() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return false;
+        }
+
+        @Override
+        public Deadline shrink(long timeout, TimeUnit unit) {
+            return after(timeout, unit);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Deadline && ((Deadline) o).getTick() == TicksMask;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(TicksMask);
+        }
+
+        @Override
+        public String toString() {
+            return "Deadline{never}";
+        }
+    }
+
+    final class Deadlines implements Deadline {
+        final long tick;
+        final TimeSource source;
+
+        Deadlines(long tick, TimeSource source) {
+            this.tick = tick;
+            this.source = source;
+        }
+
+        @Override
+        public long getTick() {
+            return tick;
+        }
+
+        @Override
+        public TimeSource getSource() {
+            return source;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Deadline)) return false;
+            return tick == ((Deadline) o).getTick();
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(tick);
+        }
+
+        @Override
+        public String toString() {
+            return "Deadline{" + TickFormat.format(tick) + '}';
+        }
+    }
+}
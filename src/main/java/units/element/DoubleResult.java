@@ -0,0 +1,132 @@
+package units.element;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.DoubleFunction;
+import java.util.function.DoubleSupplier;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * a Result of double without boxing, same states as {@link Result}: value, error, both or nothing.
+ *
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-05-31
+ */
+public interface DoubleResult {
+    boolean isPresent();
+
+    /**
+     * @return the value, zero if not present
+     */
+    double getAsDouble();
+
+    /**
+     * @throws Throwable the error, or {@link Result.Both.NothingExistsError} if nothing
+     */
+    double getOrThrow();
+
+    @Nullable Throwable getError();
+
+    default boolean hasError() {
+        return getError() != null;
+    }
+
+    default boolean isNothing() {
+        return !isPresent() && !hasError();
+    }
+
+    default double orElse(double other) {
+        return isPresent() ? getAsDouble() : other;
+    }
+
+    /**
+     * never throw error, error of mapper becomes failure
+     */
+    DoubleResult map(DoubleUnaryOperator mapper);
+
+    DoubleResult mapError(Function<Throwable, Throwable> mapper);
+
+    <R> Result<R> mapToObj(DoubleFunction<R> mapper);
+
+    Result<Double> boxed();
+
+    static DoubleResult ok(double value) {
+        return new DoubleResults(value, true, null);
+    }
+
+    static DoubleResult error(Throwable ex) {
+        return new DoubleResults(0D, false,
+            Objects.requireNonNull(ex, "an error result should not with a null exception."));
+    }
+
+    static DoubleResult done(double value, Throwable ex) {
+        return new DoubleResults(value, true,
+            Objects.requireNonNull(ex, "an both result should not with a null exception."));
+    }
+
+    static DoubleResult nothing() {
+        return DoubleResults.NOTHING;
+    }
+
+    static DoubleResult with(DoubleSupplier supplier) {
+        try {
+            return ok(supplier.getAsDouble());
+        } catch (Exception ex) {
+            return error(ex);
+        }
+    }
+
+    final class DoubleResults extends PrimitiveResult implements DoubleResult {
+        static final DoubleResult NOTHING = new DoubleResults(0D, false, null);
+        final double value;
+
+        DoubleResults(double value, boolean present, Throwable error) {
+            super(present, error);
+            this.value = value;
+        }
+
+        @Override
+        public double getAsDouble() {
+            return value;
+        }
+
+        @Override
+        public double getOrThrow() {
+            checkPresent();
+            return value;
+        }
+
+        @Override
+        public DoubleResult map(DoubleUnaryOperator mapper) {
+            if (!present) return this;
+            try {
+                return new DoubleResults(mapper.applyAsDouble(value), true, error);
+            } catch (Exception ex) {
+                return error(ex);
+            }
+        }
+
+        @Override
+        public DoubleResult mapError(Function<Throwable, Throwable> mapper) {
+            return error == null ? this : new DoubleResults(value, present, mappedError(mapper));
+        }
+
+        @Override
+        public <R> Result<R> mapToObj(DoubleFunction<R> mapper) {
+            return toResult(() -> mapper.apply(value));
+        }
+
+        @Override
+        public Result<Double> boxed() {
+            return toResult(() -> value);
+        }
+
+        @Override
+        public String toString() {
+            return describe("DoubleResult", value);
+        }
+    }
+}
@@ -11,6 +11,7 @@ import java.security.SecureRandom;
 import java.time.Instant;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Universal Identity like a BSON ObjectId
@@ -39,6 +40,13 @@ public interface Identity extends Comparable<Identity>, Serializable {
      */
     int getCounter();
 
+    /**
+     * @return region &lt;&lt; 24 | machine &lt;&lt; 8 | counter
+     */
+    default int getPacked() {
+        return IdentityCodec.pack(getRegion(), getMachine(), getCounter());
+    }
+
     String dump();
 
     /**
@@ -56,12 +64,40 @@ public interface Identity extends Comparable<Identity>, Serializable {
      */
     String toIdentity();
 
+    /**
+     * write the 12 bytes at current position of the buffer
+     */
+    void writeTo(ByteBuffer buffer);
+
+    /**
+     * write the 12 bytes into array
+     *
+     * @return offset after written
+     */
+    int writeTo(byte[] dst, int offset);
+
+    /**
+     * append the compressed 16 char Identity
+     */
+    StringBuilder appendTo(StringBuilder sb);
+
+    /**
+     * encode the compressed 16 char Identity into array
+     *
+     * @return offset after written
+     */
+    int encodeTo(char[] dst, int offset);
+
 
     static void setMachine(short m) {
         if (m < 0 || m > 512) throw new IllegalArgumentException("machine code should between 0 to 256");
         Identifier.MACHINE.set(m);
     }
 
+    /**
+     * @deprecated counters are managed by {@link IdentityGenerator} lanes, this has no effect on generated ids.
+     */
+    @Deprecated
     static void setCounter(short m) {
         if (m < 0 || m > 256) throw new IllegalArgumentException("counter code should between 0 to 256");
         Identifier.COUNTER.set(m);
@@ -72,10 +108,32 @@ public interface Identity extends Comparable<Identity>, Serializable {
         Identifier.REGION.set(m);
     }
 
+    /**
+     * replace the generator used by {@link #get()}.<br>
+     * the new one starts after the last tick of the old one, see {@link IdentityGenerator#skipPast(long)},
+     * ids drawn from the old generator while swapping may still collide.
+     */
+    static void setGenerator(IdentityGenerator generator) {
+        Objects.requireNonNull(generator, "generator should not be null");
+        final long last = Identifier.GENERATOR.get().lastTick();
+        if (last >= 0) generator.skipPast(last);
+        Identifier.GENERATOR.set(generator);
+    }
+
+    /**
+     * next id of the current generator, the default one follows {@link TimeSource#use(TimeSource)}
+     */
     static Identity get() {
         return Identifier.newIdentity();
     }
 
+    /**
+     * reserve n continuous ids in one atomic step
+     */
+    static IdentityGenerator.Batch batch(int n) {
+        return Identifier.GENERATOR.get().batch(n);
+    }
+
     static Identity parse(byte[] code) {
         return Identifier.parse(code);
     }
@@ -84,17 +142,86 @@ public interface Identity extends Comparable<Identity>, Serializable {
         return Identifier.parse(code);
     }
 
-    @AllArgsConstructor(staticName = "of", access = AccessLevel.PRIVATE)
+    /**
+     * parse a 16 char compressed or 24 char hex Identity from a region of chars
+     *
+     * @throws IllegalArgumentException if not a valid Identity
+     */
+    static Identity parse(CharSequence src, int offset, int length) {
+        return IdentityCodec.parse(src, offset, length);
+    }
+
+    /**
+     * @throws IllegalArgumentException if not a valid Identity
+     */
+    static Identity parse(char[] src, int offset, int length) {
+        return IdentityCodec.parse(src, offset, length);
+    }
+
+    /**
+     * parse from ASCII encoded text
+     *
+     * @throws IllegalArgumentException if not a valid Identity
+     */
+    static Identity parseAscii(byte[] src, int offset, int length) {
+        return IdentityCodec.parseAscii(src, offset, length);
+    }
+
+    /**
+     * @return null if not a valid Identity
+     */
+    static @Nullable Identity tryParse(CharSequence src, int offset, int length) {
+        return IdentityCodec.tryParse(src, offset, length);
+    }
+
+    /**
+     * @return null if not a valid Identity
+     */
+    static @Nullable Identity tryParse(char[] src, int offset, int length) {
+        return IdentityCodec.tryParse(src, offset, length);
+    }
+
+    /**
+     * @return null if not a valid Identity
+     */
+    static @Nullable Identity tryParseAscii(byte[] src, int offset, int length) {
+        return IdentityCodec.tryParseAscii(src, offset, length);
+    }
+
+    /**
+     * @return the least Identity of the instant, for range queries on sorted collections
+     */
+    static Identity lowerBound(Instant instant) {
+        return Identifier.of(Tick.Ticks.fromUTC(instant), (byte) 0, (short) 0, (byte) 0);
+    }
+
+    /**
+     * @return the greatest Identity of the instant, for range queries on sorted collections
+     */
+    static Identity upperBound(Instant instant) {
+        return Identifier.of(Tick.Ticks.fromUTC(instant), (byte) -1, (short) -1, (byte) -1);
+    }
+
+    /**
+     * read 12 bytes Identity from array
+     */
+    static Identity fromBytes(byte[] src, int offset) {
+        return IdentityCodec.readBytes(src, offset);
+    }
+
+    @AllArgsConstructor(staticName = "of", access = AccessLevel.PACKAGE)
     final class Identifier implements Identity {
 
+        /**
+         * @deprecated counters are managed by {@link IdentityGenerator} lanes, this is never read.
+         */
+        @Deprecated
         public static final AtomicInteger COUNTER = new AtomicInteger(0);
         public static final AtomicInteger MACHINE = new AtomicInteger(new SecureRandom().nextInt());
         public static final AtomicInteger REGION = new AtomicInteger(new SecureRandom().nextInt());
+        public static final AtomicReference<IdentityGenerator> GENERATOR = new AtomicReference<>(IdentityGenerator.striped());
 
         private static final int IDENTITY_LENGTH = 12;
-        private static final char[] HEX_CHARS = new char[]{
-            '0', '1', '2', '3', '4', '5', '6', '7',
-            '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
         private static final long serialVersionUID = 7526908201753354140L;
         private final long tick;//8
         private final byte region;//1
@@ -126,21 +253,40 @@ public interface Identity extends Comparable<Identity>, Serializable {
             return counter & 0xFF;
         }
 
-        Identifier() {
-            this.tick = Tick.now().toLong();
-            this.machine = (short) MACHINE.get();
-            this.region = (byte) REGION.get();
-            this.counter = (byte) COUNTER.accumulateAndGet(127, (p, n) -> p >= n ? -127 : (p + 1));
+        int packed() {
+            return IdentityCodec.pack(region, machine, counter);
+        }
+
+        @Override
+        public int getPacked() {
+            return packed();
         }
 
         @Override
         public byte[] toBytes() {
-            final ByteBuffer buffer = ByteBuffer.allocate(IDENTITY_LENGTH);
-            buffer.putLong(tick);
-            buffer.put(region);
-            buffer.putShort(machine);
-            buffer.put(counter);
-            return buffer.array();
+            final byte[] bytes = new byte[IDENTITY_LENGTH];
+            IdentityCodec.writeBytes(tick, packed(), bytes, 0);
+            return bytes;
+        }
+
+        @Override
+        public void writeTo(ByteBuffer buffer) {
+            IdentityCodec.writeBytes(tick, packed(), buffer);
+        }
+
+        @Override
+        public int writeTo(byte[] dst, int offset) {
+            return IdentityCodec.writeBytes(tick, packed(), dst, offset);
+        }
+
+        @Override
+        public StringBuilder appendTo(StringBuilder sb) {
+            return IdentityCodec.append(tick, packed(), sb);
+        }
+
+        @Override
+        public int encodeTo(char[] dst, int offset) {
+            return IdentityCodec.encode(tick, packed(), dst, offset);
         }
 
         @Override
@@ -154,14 +300,14 @@ public interface Identity extends Comparable<Identity>, Serializable {
             if (!(o instanceof Identifier)) return false;
             Identifier identity = (Identifier) o;
             return tick == identity.tick
-                && getMachine() == identity.getMachine()
-                && getCounter() == identity.getRegion()
-                && getRegion() == identity.getRegion();
+                && machine == identity.machine
+                && counter == identity.counter
+                && region == identity.region;
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(tick, region, machine, counter);
+            return IdentityCodec.hash(tick, packed());
         }
 
         @Override
@@ -175,12 +321,8 @@ public interface Identity extends Comparable<Identity>, Serializable {
         }
 
         public String toHex() {
-            char[] chars = new char[IDENTITY_LENGTH * 2];
-            int i = 0;
-            for (byte b : toBytes()) {
-                chars[i++] = HEX_CHARS[b >> 4 & 0xF];
-                chars[i++] = HEX_CHARS[b & 0xF];
-            }
+            final char[] chars = new char[IdentityCodec.HEX_LENGTH];
+            IdentityCodec.encodeHex(tick, packed(), chars, 0);
             return new String(chars);
         }
 
@@ -189,68 +331,18 @@ public interface Identity extends Comparable<Identity>, Serializable {
          */
 
         public String toIdentity() {
-            return compress(toHex());
+            final char[] chars = new char[IdentityCodec.COMPRESSED_LENGTH];
+            IdentityCodec.encode(tick, packed(), chars, 0);
+            return new String(chars);
         }
 
         @Override
         public int compareTo(@NotNull Identity o) {
-            if (tick != o.getTick()) return Long.compare(tick, o.getTick());
-            if (region != o.getRegion()) return Integer.compare(getRegion(), o.getRegion());
-            if (machine != o.getMachine()) return Integer.compare(getMachine(), o.getMachine());
-            return Integer.compare(getCounter(), o.getCounter());
-        }
-
-        //region Compress
-        private static final char[] COMPRESS_HEX_CHARS = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ-_".toCharArray();
-
-        private static String compress(String hex) {
-            if (hex == null || hex.length() != 24) throw new IllegalArgumentException("not a hex identity");
-            final char[] chars = hex.toCharArray();
-            final StringBuilder sb = new StringBuilder(16);
-            for (int i = 0; i < chars.length; i += 3) {
-                int pre = charToInt(chars[i]),
-                    mid = charToInt(chars[i + 1]),
-                    end = charToInt(chars[i + 2]);
-                sb.append(intToChar((pre << 2) + (mid >> 2)));
-                sb.append(intToChar(((mid & 3) << 4) + end));
-            }
-            return sb.toString();
+            return IdentityCodec.compare(tick, packed(), o.getTick(), o.getPacked());
         }
 
-        private static String decompress(String hex) {
-            if (hex == null || hex.length() != 16) throw new IllegalArgumentException("not a short identity");
-            final char[] chars = hex.toCharArray();
-            final StringBuilder sb = new StringBuilder(24);
-            for (int i = 0; i < chars.length; i += 2) {
-                int pre = charToInt(chars[i]),
-                    end = charToInt(chars[i + 1]);
-                sb.append(intToChar((pre >> 2)));
-                sb.append(intToChar(((pre & 3) << 2) + (end >> 4)));
-                sb.append(intToChar(end & 15));
-            }
-            return sb.toString();
-        }
-
-        private static int charToInt(char c) {
-            int found = -1;
-            for (int i = 0; i < COMPRESS_HEX_CHARS.length; ++i) {
-                if (COMPRESS_HEX_CHARS[i] == c) {
-                    found = i;
-                    break;
-                }
-            }
-            if (found < 0) throw new IllegalArgumentException("not valid code : " + c);
-            return found;
-        }
-
-        private static char intToChar(int c) {
-            if (c < 0 || c > 63) throw new IllegalArgumentException("not valid index : " + c);
-            return COMPRESS_HEX_CHARS[c];
-        }
-        //endregion
-
         public static Identity newIdentity() {
-            return new Identifier();
+            return GENERATOR.get().next();
         }
 
         public static boolean isValid(final String hexString) {
@@ -298,28 +390,12 @@ public interface Identity extends Comparable<Identity>, Serializable {
 
         public static @Nullable Identity parse(String identity) {
             if (identity == null || (identity.length() != 16 && identity.length() != 24)) return null;
-            final String hex;
-            if (identity.length() == 16) {
-                hex = decompress(identity);
-            } else {
-                hex = identity;
-            }
-            ByteBuffer buffer = ByteBuffer.wrap(parseAsByte(hex));
-            return Identifier.of(buffer.getLong(), buffer.get(), buffer.getShort(), buffer.get());
+            return IdentityCodec.parse(identity, 0, identity.length());
         }
 
         public static @Nullable Identity parse(byte[] identity) {
-            if (identity == null || (identity.length != 12)) return null;
-            ByteBuffer buffer = ByteBuffer.wrap(identity);
-            return Identifier.of(buffer.getLong(), buffer.get(), buffer.getShort(), buffer.get());
-        }
-
-        private static byte[] parseAsByte(String code) {
-            byte[] b = new byte[IDENTITY_LENGTH];
-            for (int i = 0; i < b.length; i++) {
-                b[i] = (byte) Integer.parseInt(code.substring(i * 2, i * 2 + 2), 16);
-            }
-            return b;
+            if (identity == null || (identity.length != IDENTITY_LENGTH)) return null;
+            return IdentityCodec.readBytes(identity, 0);
         }
 
 
@@ -0,0 +1,374 @@
+package units.element;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Allocation free codec of the 12 bytes Identity layout:<br>
+ * tick(8) region(1) machine(2) counter(1), always big endian.<br>
+ * The last 4 bytes are handled as one packed int: region &lt;&lt; 24 | machine &lt;&lt; 8 | counter.<br>
+ * The compressed form maps every 6 bits to one char of {@link Tables#ALPHABET}, 12 bytes to 16 chars.
+ *
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-05-24
+ */
+public interface IdentityCodec {
+    int BYTES = 12;
+    int HEX_LENGTH = 24;
+    int COMPRESSED_LENGTH = 16;
+
+    static int pack(int region, int machine, int counter) {
+        return (region & 0xFF) << 24 | (machine & 0xFFFF) << 8 | (counter & 0xFF);
+    }
+
+    static int region(int packed) {
+        return packed >>> 24;
+    }
+
+    static int machine(int packed) {
+        return (packed >>> 8) & 0xFFFF;
+    }
+
+    static int counter(int packed) {
+        return packed & 0xFF;
+    }
+
+    /**
+     * compare by signed tick then unsigned packed, the order of {@link Identity#compareTo}
+     */
+    static int compare(long tick, int packed, long otherTick, int otherPacked) {
+        return tick != otherTick ? Long.compare(tick, otherTick) : Integer.compareUnsigned(packed, otherPacked);
+    }
+
+    /**
+     * cheap mixing hash of an Identity, without boxing.
+     */
+    static int hash(long tick, int packed) {
+        long h = tick * 0x9E3779B97F4A7C15L + packed * 0xC2B2AE3D27D4EB4FL;
+        h ^= h >>> 29;
+        return (int) (h ^ h >>> 32);
+    }
+
+    /**
+     * visitor of Identity in primitive form
+     */
+    @FunctionalInterface
+    interface Visitor {
+        void accept(long tick, int packed);
+    }
+
+    //region Bytes
+
+    /**
+     * @return offset after the written bytes
+     */
+    static int writeBytes(long tick, int packed, byte[] dst, int offset) {
+        for (int i = 7; i >= 0; i--) {
+            dst[offset + i] = (byte) tick;
+            tick >>>= 8;
+        }
+        dst[offset + 8] = (byte) (packed >>> 24);
+        dst[offset + 9] = (byte) (packed >>> 16);
+        dst[offset + 10] = (byte) (packed >>> 8);
+        dst[offset + 11] = (byte) packed;
+        return offset + BYTES;
+    }
+
+    /**
+     * write 12 bytes at current position of the buffer, big endian whatever the buffer order is.
+     */
+    static void writeBytes(long tick, int packed, ByteBuffer dst) {
+        if (dst.order() == ByteOrder.BIG_ENDIAN) {
+            dst.putLong(tick).putInt(packed);
+        } else {
+            dst.putLong(Long.reverseBytes(tick)).putInt(Integer.reverseBytes(packed));
+        }
+    }
+
+    /**
+     * write 12 bytes at an absolute index, position of the buffer is not changed.
+     */
+    static void writeBytes(long tick, int packed, ByteBuffer dst, int index) {
+        if (dst.order() == ByteOrder.BIG_ENDIAN) {
+            dst.putLong(index, tick).putInt(index + 8, packed);
+        } else {
+            dst.putLong(index, Long.reverseBytes(tick)).putInt(index + 8, Integer.reverseBytes(packed));
+        }
+    }
+    //endregion
+
+    //region Chars
+
+    /**
+     * encode into 24 hex chars
+     *
+     * @return offset after the written chars
+     */
+    static int encodeHex(long tick, int packed, char[] dst, int offset) {
+        final char[] hex = Tables.HEX;
+        for (int i = 15; i >= 0; i--) {
+            dst[offset + i] = hex[(int) tick & 0xF];
+            tick >>>= 4;
+        }
+        for (int i = 23; i >= 16; i--) {
+            dst[offset + i] = hex[packed & 0xF];
+            packed >>>= 4;
+        }
+        return offset + HEX_LENGTH;
+    }
+
+    /**
+     * encode into 16 compressed chars, the same as {@link Identity#toIdentity()}
+     *
+     * @return offset after the written chars
+     */
+    static int encode(long tick, int packed, char[] dst, int offset) {
+        final char[] alphabet = Tables.ALPHABET;
+        for (int i = 0; i < 10; i++) {
+            dst[offset + i] = alphabet[(int) (tick >>> (58 - i * 6)) & 0x3F];
+        }
+        dst[offset + 10] = alphabet[((int) tick & 0xF) << 2 | packed >>> 30];
+        for (int i = 0; i < 5; i++) {
+            dst[offset + 11 + i] = alphabet[(packed >>> (24 - i * 6)) & 0x3F];
+        }
+        return offset + COMPRESSED_LENGTH;
+    }
+
+    static StringBuilder append(long tick, int packed, StringBuilder sb) {
+        final char[] alphabet = Tables.ALPHABET;
+        for (int i = 0; i < 10; i++) {
+            sb.append(alphabet[(int) (tick >>> (58 - i * 6)) & 0x3F]);
+        }
+        sb.append(alphabet[((int) tick & 0xF) << 2 | packed >>> 30]);
+        for (int i = 0; i < 5; i++) {
+            sb.append(alphabet[(packed >>> (24 - i * 6)) & 0x3F]);
+        }
+        return sb;
+    }
+
+    static StringBuilder appendHex(long tick, int packed, StringBuilder sb) {
+        final char[] hex = Tables.HEX;
+        for (int i = 60; i >= 0; i -= 4) {
+            sb.append(hex[(int) (tick >>> i) & 0xF]);
+        }
+        for (int i = 28; i >= 0; i -= 4) {
+            sb.append(hex[(packed >>> i) & 0xF]);
+        }
+        return sb;
+    }
+    //endregion
+
+    //region Parse
+
+    /**
+     * read 12 bytes from array
+     */
+    static Identity readBytes(byte[] src, int offset) {
+        long tick = 0;
+        for (int i = 0; i < 8; i++) {
+            tick = tick << 8 | (src[offset + i] & 0xFF);
+        }
+        final int packed = (src[offset + 8] & 0xFF) << 24
+            | (src[offset + 9] & 0xFF) << 16
+            | (src[offset + 10] & 0xFF) << 8
+            | (src[offset + 11] & 0xFF);
+        return of(tick, packed);
+    }
+
+    /**
+     * read 12 bytes at an absolute index, big endian whatever the buffer order is.
+     */
+    static Identity readBytes(ByteBuffer src, int index) {
+        return src.order() == ByteOrder.BIG_ENDIAN
+            ? of(src.getLong(index), src.getInt(index + 8))
+            : of(Long.reverseBytes(src.getLong(index)), Integer.reverseBytes(src.getInt(index + 8)));
+    }
+
+    /**
+     * parse a 16 char compressed or 24 char hex Identity from a region of chars
+     *
+     * @return null if not a valid Identity
+     */
+    static @Nullable Identity tryParse(CharSequence src, int offset, int length) {
+        if (src == null || offset < 0 || offset + length > src.length()) return null;
+        long tick = 0;
+        int packed = 0;
+        int bad = 0;
+        if (length == COMPRESSED_LENGTH) {
+            for (int i = 0; i < 10; i++) {
+                final int v = Tables.base64(src.charAt(offset + i));
+                bad |= v;
+                tick = tick << 6 | v;
+            }
+            final int v = Tables.base64(src.charAt(offset + 10));
+            bad |= v;
+            tick = tick << 4 | v >>> 2;
+            packed = v & 3;
+            for (int i = 11; i < 16; i++) {
+                final int w = Tables.base64(src.charAt(offset + i));
+                bad |= w;
+                packed = packed << 6 | w;
+            }
+        } else if (length == HEX_LENGTH) {
+            for (int i = 0; i < 16; i++) {
+                final int v = Tables.hex(src.charAt(offset + i));
+                bad |= v;
+                tick = tick << 4 | v;
+            }
+            for (int i = 16; i < 24; i++) {
+                final int v = Tables.hex(src.charAt(offset + i));
+                bad |= v;
+                packed = packed << 4 | v;
+            }
+        } else return null;
+        return bad < 0 ? null : of(tick, packed);
+    }
+
+    /**
+     * @see #tryParse(CharSequence, int, int)
+     */
+    static @Nullable Identity tryParse(char[] src, int offset, int length) {
+        if (src == null || offset < 0 || offset + length > src.length) return null;
+        long tick = 0;
+        int packed = 0;
+        int bad = 0;
+        if (length == COMPRESSED_LENGTH) {
+            for (int i = 0; i < 10; i++) {
+                final int v = Tables.base64(src[offset + i]);
+                bad |= v;
+                tick = tick << 6 | v;
+            }
+            final int v = Tables.base64(src[offset + 10]);
+            bad |= v;
+            tick = tick << 4 | v >>> 2;
+            packed = v & 3;
+            for (int i = 11; i < 16; i++) {
+                final int w = Tables.base64(src[offset + i]);
+                bad |= w;
+                packed = packed << 6 | w;
+            }
+        } else if (length == HEX_LENGTH) {
+            for (int i = 0; i < 16; i++) {
+                final int v = Tables.hex(src[offset + i]);
+                bad |= v;
+                tick = tick << 4 | v;
+            }
+            for (int i = 16; i < 24; i++) {
+                final int v = Tables.hex(src[offset + i]);
+                bad |= v;
+                packed = packed << 4 | v;
+            }
+        } else return null;
+        return bad < 0 ? null : of(tick, packed);
+    }
+
+    /**
+     * parse from ASCII encoded text, such as raw http path or json payload.
+     *
+     * @see #tryParse(CharSequence, int, int)
+     */
+    static @Nullable Identity tryParseAscii(byte[] src, int offset, int length) {
+        if (src == null || offset < 0 || offset + length > src.length) return null;
+        long tick = 0;
+        int packed = 0;
+        int bad = 0;
+        if (length == COMPRESSED_LENGTH) {
+            for (int i = 0; i < 10; i++) {
+                final int v = Tables.base64(src[offset + i] & 0xFF);
+                bad |= v;
+                tick = tick << 6 | v;
+            }
+            final int v = Tables.base64(src[offset + 10] & 0xFF);
+            bad |= v;
+            tick = tick << 4 | v >>> 2;
+            packed = v & 3;
+            for (int i = 11; i < 16; i++) {
+                final int w = Tables.base64(src[offset + i] & 0xFF);
+                bad |= w;
+                packed = packed << 6 | w;
+            }
+        } else if (length == HEX_LENGTH) {
+            for (int i = 0; i < 16; i++) {
+                final int v = Tables.hex(src[offset + i] & 0xFF);
+                bad |= v;
+                tick = tick << 4 | v;
+            }
+            for (int i = 16; i < 24; i++) {
+                final int v = Tables.hex(src[offset + i] & 0xFF);
+                bad |= v;
+                packed = packed << 4 | v;
+            }
+        } else return null;
+        return bad < 0 ? null : of(tick, packed);
+    }
+
+    /**
+     * @throws IllegalArgumentException if not a valid Identity
+     * @see #tryParse(CharSequence, int, int)
+     */
+    static Identity parse(CharSequence src, int offset, int length) {
+        return checked(tryParse(src, offset, length));
+    }
+
+    /**
+     * @throws IllegalArgumentException if not a valid Identity
+     * @see #tryParse(char[], int, int)
+     */
+    static Identity parse(char[] src, int offset, int length) {
+        return checked(tryParse(src, offset, length));
+    }
+
+    /**
+     * @throws IllegalArgumentException if not a valid Identity
+     * @see #tryParseAscii(byte[], int, int)
+     */
+    static Identity parseAscii(byte[] src, int offset, int length) {
+        return checked(tryParseAscii(src, offset, length));
+    }
+
+    static Identity checked(@Nullable Identity identity) {
+        if (identity == null) throw new IllegalArgumentException("not a valid identity");
+        return identity;
+    }
+
+    static Identity of(long tick, int packed) {
+        return Identity.Identifier.of(tick, (byte) region(packed), (short) machine(packed), (byte) counter(packed));
+    }
+    //endregion
+
+    final class Tables {
+        static final char[] HEX = "0123456789abcdef".toCharArray();
+        static final char[] ALPHABET = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ-_".toCharArray();
+        /**
+         * char to value, -1 for invalid chars
+         */
+        static final byte[] HEX_DECODE = new byte[128];
+        static final byte[] ALPHABET_DECODE = new byte[128];
+
+        static {
+            java.util.Arrays.fill(HEX_DECODE, (byte) -1);
+            java.util.Arrays.fill(ALPHABET_DECODE, (byte) -1);
+            for (int i = 0; i < 16; i++) {
+                HEX_DECODE[HEX[i]] = (byte) i;
+                HEX_DECODE[Character.toUpperCase(HEX[i])] = (byte) i;
+            }
+            for (int i = 0; i < ALPHABET.length; i++) {
+                ALPHABET_DECODE[ALPHABET[i]] = (byte) i;
+            }
+        }
+
+        static int hex(int c) {
+            return c < 128 ? HEX_DECODE[c] : -1;
+        }
+
+        static int base64(int c) {
+            return c < 128 ? ALPHABET_DECODE[c] : -1;
+        }
+
+        private Tables() {
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package units.element;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static units.element.Tick.Ticks.TicksMask;
+
+/**
+ * Generator behind {@link Identity#get()}.<br>
+ * The 8 bit counter space of one tick is split into lanes, a thread always draws from the same lane,
+ * so threads on different lanes never contend and never collide.<br>
+ * When a lane used up its counters of current tick, it borrows the next tick,
+ * ids from one lane are strictly increasing.
+ *
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-05-24
+ */
+public interface IdentityGenerator {
+    /**
+     * max lanes, one counter per lane in each tick
+     */
+    int MAX_LANES = 256;
+
+    Identity next();
+
+    /**
+     * reserve n continuous ids in one atomic step
+     *
+     * @param n count of ids
+     */
+    Batch batch(int n);
+
+    /**
+     * @return highest masked tick of ids issued or reserved, -1 if none or unknown
+     */
+    default long lastTick() {
+        return -1;
+    }
+
+    /**
+     * make later ids use ticks after the masked tick, so they never collide with ids of a generator
+     * replaced by this one. no op by default.
+     */
+    default void skipPast(long tick) {
+    }
+
+    /**
+     * ticks follow {@link TimeSource#live()}, a source switched later never moves ids backwards.
+     *
+     * @param lanes power of 2 between 1 and 256, 1 means a single global lane.
+     */
+    static IdentityGenerator striped(int lanes) {
+        return new Striped(lanes, TimeSource.live());
+    }
+
+    /**
+     * @param lanes  power of 2 between 1 and 256
+     * @param source time source of ticks, a cached or monotonic source saves clock reads.
+     */
+    static IdentityGenerator striped(int lanes, TimeSource source) {
+        return new Striped(lanes, source);
+    }
+
+    /**
+     * striped generator with lanes fit to available processors, ticks follow {@link TimeSource#live()}.
+     */
+    static IdentityGenerator striped() {
+        return new Striped(Striped.defaultLanes(), TimeSource.live());
+    }
+
+    final class Striped implements IdentityGenerator {
+        /**
+         * longs between two lanes, keep each lane on its own cache line
+         */
+        static final int PAD = 16;
+        final int laneMask;
+        final int slotBits;
+        final long kind;
+        final long origin;
+        final TimeSource source;
+        /**
+         * next free slot of each lane, a slot is (tick - origin) &lt;&lt; slotBits | sequence
+         */
+        final AtomicLongArray slots;
+
+        Striped(int lanes, TimeSource source) {
+            if (lanes < 1 || lanes > MAX_LANES || Integer.bitCount(lanes) != 1)
+                throw new IllegalArgumentException("lanes should be power of 2 between 1 and " + MAX_LANES);
+            this.laneMask = lanes - 1;
+            this.slotBits = 8 - Integer.numberOfTrailingZeros(lanes);
+            this.source = source;
+            final long now = source.tick();
+            this.kind = now & ~TicksMask;
+            this.origin = now & TicksMask;
+            this.slots = new AtomicLongArray(lanes * PAD);
+        }
+
+        static int defaultLanes() {
+            final int cpu = Runtime.getRuntime().availableProcessors();
+            return Math.min(64, Integer.highestOneBit(Math.max(1, cpu * 2 - 1)));
+        }
+
+        int lanes() {
+            return laneMask + 1;
+        }
+
+        int lane() {
+            return (int) Thread.currentThread().getId() & laneMask;
+        }
+
+        /**
+         * reserve n continuous slots of a lane in one step
+         *
+         * @return the first slot
+         */
+        long reserve(int lane, int n) {
+            final int i = lane * PAD;
+            final long floor = ((source.tick() & TicksMask) - origin) << slotBits;
+            for (; ; ) {
+                final long cur = slots.get(i);
+                final long first = Math.max(cur, floor);
+                if (slots.compareAndSet(i, cur, first + n)) return first;
+            }
+        }
+
+        long tickOf(long slot) {
+            return (origin + (slot >>> slotBits)) | kind;
+        }
+
+        int counterOf(int lane, long slot) {
+            return (lane << slotBits) | (int) (slot & ((1 << slotBits) - 1));
+        }
+
+        @Override
+        public long lastTick() {
+            long max = -1;
+            for (int i = 0, n = lanes(); i < n; i++) max = Math.max(max, slots.get(i * PAD) - 1);
+            return max < 0 ? -1 : origin + (max >>> slotBits);
+        }
+
+        @Override
+        public void skipPast(long tick) {
+            final long floor = ((tick & TicksMask) - origin + 1) << slotBits;
+            if (floor <= 0) return;
+            for (int i = 0, n = lanes(); i < n; i++) {
+                for (; ; ) {
+                    final long cur = slots.get(i * PAD);
+                    if (cur >= floor || slots.compareAndSet(i * PAD, cur, floor)) break;
+                }
+            }
+        }
+
+        @Override
+        public Identity next() {
+            final int lane = lane();
+            final long slot = reserve(lane, 1);
+            return Identity.Identifier.of(
+                tickOf(slot),
+                (byte) Identity.Identifier.REGION.get(),
+                (short) Identity.Identifier.MACHINE.get(),
+                (byte) counterOf(lane, slot));
+        }
+
+        @Override
+        public Batch batch(int n) {
+            if (n < 1) throw new IllegalArgumentException("batch size should be positive");
+            final int lane = lane();
+            return new Batch(this, lane, reserve(lane, n), n,
+                IdentityCodec.pack(Identity.Identifier.REGION.get(), Identity.Identifier.MACHINE.get(), 0));
+        }
+    }
+
+    /**
+     * a reserved range of ids, ordered and unique, materialized on demand.
+     */
+    final class Batch {
+        final Striped generator;
+        final int lane;
+        final long first;
+        final int size;
+        /**
+         * region and machine, counter is zero
+         */
+        final int base;
+
+        Batch(Striped generator, int lane, long first, int size, int base) {
+            this.generator = generator;
+            this.lane = lane;
+            this.first = first;
+            this.size = size;
+            this.base = base;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public long tick(int i) {
+            return generator.tickOf(first + check(i));
+        }
+
+        public int packed(int i) {
+            return base | generator.counterOf(lane, first + check(i));
+        }
+
+        public Identity get(int i) {
+            return IdentityCodec.of(tick(i), packed(i));
+        }
+
+        public Identity[] toArray() {
+            final Identity[] result = new Identity[size];
+            long slot = first;
+            for (int i = 0; i < size; i++, slot++) {
+                result[i] = IdentityCodec.of(generator.tickOf(slot), base | generator.counterOf(lane, slot));
+            }
+            return result;
+        }
+
+        /**
+         * write ticks and packed region/machine/counter into parallel arrays
+         *
+         * @return offset after written
+         */
+        public int writeTo(long[] ticks, int[] packed, int offset) {
+            if (offset < 0 || offset + size > ticks.length || offset + size > packed.length)
+                throw new IndexOutOfBoundsException("not enough space for batch of " + size);
+            long slot = first;
+            for (int i = offset, end = offset + size; i < end; i++, slot++) {
+                ticks[i] = generator.tickOf(slot);
+                packed[i] = base | generator.counterOf(lane, slot);
+            }
+            return offset + size;
+        }
+
+        /**
+         * write 12 bytes records at current position of the buffer
+         */
+        public void writeTo(ByteBuffer buffer) {
+            if (buffer.remaining() < size * IdentityCodec.BYTES)
+                throw new IndexOutOfBoundsException("not enough space for batch of " + size);
+            long slot = first;
+            for (int i = 0; i < size; i++, slot++) {
+                IdentityCodec.writeBytes(generator.tickOf(slot), base | generator.counterOf(lane, slot), buffer);
+            }
+        }
+
+        int check(int i) {
+            if (i < 0 || i >= size) throw new IndexOutOfBoundsException("index " + i + " out of batch size " + size);
+            return i;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package units.element;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing map keyed by Identity, keys stored as parallel primitive arrays of tick and packed int.<br>
+ * Lookups never create Identity objects. Not thread safe.
+ *
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-05-25
+ */
+public interface IdentityMap<V> {
+    int size();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @return previous value or null
+     */
+    @Nullable V put(long tick, int packed, V value);
+
+    @Nullable V get(long tick, int packed);
+
+    boolean containsKey(long tick, int packed);
+
+    /**
+     * @return removed value or null
+     */
+    @Nullable V remove(long tick, int packed);
+
+    void clear();
+
+    void forEach(EntryVisitor<? super V> visitor);
+
+    default @Nullable V put(Identity key, V value) {
+        return put(key.getTick(), key.getPacked(), value);
+    }
+
+    default @Nullable V get(Identity key) {
+        return get(key.getTick(), key.getPacked());
+    }
+
+    default boolean containsKey(Identity key) {
+        return containsKey(key.getTick(), key.getPacked());
+    }
+
+    default @Nullable V remove(Identity key) {
+        return remove(key.getTick(), key.getPacked());
+    }
+
+    @FunctionalInterface
+    interface EntryVisitor<V> {
+        void accept(long tick, int packed, V value);
+    }
+
+    static <V> IdentityMap<V> create() {
+        return new HashIdentityMap<>(16);
+    }
+
+    /**
+     * @param expected expected size, avoid rehash before reach it
+     */
+    static <V> IdentityMap<V> create(int expected) {
+        return new HashIdentityMap<>(expected);
+    }
+
+    final class HashIdentityMap<V> implements IdentityMap<V> {
+        long[] ticks;
+        int[] packs;
+        Object[] values;
+        /**
+         * (0,0) marks an empty slot, the zero identity is tracked aside
+         */
+        boolean zero;
+        V zeroValue;
+        int size;
+        int mask;
+        int limit;
+
+        HashIdentityMap(int expected) {
+            if (expected < 0) throw new IllegalArgumentException("expected size should not be negative");
+            allocate(IdentitySet.HashIdentitySet.capacityOf(expected));
+        }
+
+        void allocate(int capacity) {
+            ticks = new long[capacity];
+            packs = new int[capacity];
+            values = new Object[capacity];
+            mask = capacity - 1;
+            limit = (int) (capacity * IdentitySet.HashIdentitySet.LOAD_FACTOR);
+        }
+
+        int slot(long tick, int packed) {
+            int i = IdentityCodec.hash(tick, packed) & mask;
+            for (; ; ) {
+                final long t = ticks[i];
+                final int p = packs[i];
+                if (t == tick && p == packed) return i;
+                if (t == 0 && p == 0) return ~i;
+                i = (i + 1) & mask;
+            }
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public @Nullable V put(long tick, int packed, V value) {
+            if (tick == 0 && packed == 0) {
+                final V old = zeroValue;
+                if (!zero) size++;
+                zero = true;
+                zeroValue = value;
+                return old;
+            }
+            int i = slot(tick, packed);
+            if (i >= 0) {
+                final V old = (V) values[i];
+                values[i] = value;
+                return old;
+            }
+            // grow before insert, a full map throws unchanged
+            if (size >= limit) {
+                grow();
+                i = slot(tick, packed);
+            }
+            ticks[~i] = tick;
+            packs[~i] = packed;
+            values[~i] = value;
+            size++;
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public @Nullable V get(long tick, int packed) {
+            if (tick == 0 && packed == 0) return zeroValue;
+            final int i = slot(tick, packed);
+            return i < 0 ? null : (V) values[i];
+        }
+
+        @Override
+        public boolean containsKey(long tick, int packed) {
+            if (tick == 0 && packed == 0) return zero;
+            return slot(tick, packed) >= 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public @Nullable V remove(long tick, int packed) {
+            if (tick == 0 && packed == 0) {
+                final V old = zeroValue;
+                if (zero) size--;
+                zero = false;
+                zeroValue = null;
+                return old;
+            }
+            final int i = slot(tick, packed);
+            if (i < 0) return null;
+            final V old = (V) values[i];
+            shift(i);
+            size--;
+            return old;
+        }
+
+        /**
+         * backward shift deletion, keeps probe chains without tombstones
+         */
+        void shift(int gap) {
+            int j = gap;
+            for (; ; ) {
+                j = (j + 1) & mask;
+                final long t = ticks[j];
+                final int p = packs[j];
+                if (t == 0 && p == 0) break;
+                final int home = IdentityCodec.hash(t, p) & mask;
+                if (((j - home) & mask) >= ((j - gap) & mask)) {
+                    ticks[gap] = t;
+                    packs[gap] = p;
+                    values[gap] = values[j];
+                    gap = j;
+                }
+            }
+            ticks[gap] = 0;
+            packs[gap] = 0;
+            values[gap] = null;
+        }
+
+        void grow() {
+            if (ticks.length == IdentitySet.HashIdentitySet.MAX_CAPACITY)
+                throw new IllegalStateException("IdentityMap is full");
+            final long[] oldTicks = ticks;
+            final int[] oldPacks = packs;
+            final Object[] oldValues = values;
+            allocate(oldTicks.length << 1);
+            for (int i = 0; i < oldTicks.length; i++) {
+                final long t = oldTicks[i];
+                final int p = oldPacks[i];
+                if (t == 0 && p == 0) continue;
+                final int s = ~slot(t, p);
+                ticks[s] = t;
+                packs[s] = p;
+                values[s] = oldValues[i];
+            }
+        }
+
+        @Override
+        public void clear() {
+            Arrays.fill(ticks, 0);
+            Arrays.fill(packs, 0);
+            Arrays.fill(values, null);
+            zero = false;
+            zeroValue = null;
+            size = 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void forEach(EntryVisitor<? super V> visitor) {
+            if (zero) visitor.accept(0, 0, zeroValue);
+            for (int i = 0; i < ticks.length; i++) {
+                final long t = ticks[i];
+                final int p = packs[i];
+                if (t != 0 || p != 0) visitor.accept(t, p, (V) values[i]);
+            }
+        }
+    }
+}
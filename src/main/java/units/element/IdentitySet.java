@@ -0,0 +1,202 @@
+package units.element;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing set of Identity, stored as parallel primitive arrays of tick and packed int.<br>
+ * Lookups never create Identity objects. Not thread safe.
+ *
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-05-25
+ */
+public interface IdentitySet {
+    int size();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @return false if already exists
+     */
+    boolean add(long tick, int packed);
+
+    boolean contains(long tick, int packed);
+
+    /**
+     * @return false if not exists
+     */
+    boolean remove(long tick, int packed);
+
+    void clear();
+
+    void forEach(IdentityCodec.Visitor visitor);
+
+    default boolean add(Identity identity) {
+        return add(identity.getTick(), identity.getPacked());
+    }
+
+    default boolean contains(Identity identity) {
+        return contains(identity.getTick(), identity.getPacked());
+    }
+
+    default boolean remove(Identity identity) {
+        return remove(identity.getTick(), identity.getPacked());
+    }
+
+    static IdentitySet create() {
+        return new HashIdentitySet(16);
+    }
+
+    /**
+     * @param expected expected size, avoid rehash before reach it
+     */
+    static IdentitySet create(int expected) {
+        return new HashIdentitySet(expected);
+    }
+
+    final class HashIdentitySet implements IdentitySet {
+        static final float LOAD_FACTOR = 0.75f;
+        static final int MAX_CAPACITY = 1 << 30;
+        long[] ticks;
+        int[] packs;
+        /**
+         * (0,0) marks an empty slot, the zero identity is tracked aside
+         */
+        boolean zero;
+        int size;
+        int mask;
+        int limit;
+
+        HashIdentitySet(int expected) {
+            if (expected < 0) throw new IllegalArgumentException("expected size should not be negative");
+            allocate(capacityOf(expected));
+        }
+
+        static int capacityOf(int expected) {
+            final long need = (long) Math.ceil(Math.max(expected, 2) / LOAD_FACTOR);
+            if (need > MAX_CAPACITY) return MAX_CAPACITY;
+            return Integer.highestOneBit((int) need - 1) << 1;
+        }
+
+        void allocate(int capacity) {
+            ticks = new long[capacity];
+            packs = new int[capacity];
+            mask = capacity - 1;
+            limit = (int) (capacity * LOAD_FACTOR);
+        }
+
+        int slot(long tick, int packed) {
+            int i = IdentityCodec.hash(tick, packed) & mask;
+            for (; ; ) {
+                final long t = ticks[i];
+                final int p = packs[i];
+                if (t == tick && p == packed) return i;
+                if (t == 0 && p == 0) return ~i;
+                i = (i + 1) & mask;
+            }
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean add(long tick, int packed) {
+            if (tick == 0 && packed == 0) {
+                if (zero) return false;
+                zero = true;
+                size++;
+                return true;
+            }
+            int i = slot(tick, packed);
+            if (i >= 0) return false;
+            // grow before insert, a full set throws unchanged
+            if (size >= limit) {
+                grow();
+                i = slot(tick, packed);
+            }
+            ticks[~i] = tick;
+            packs[~i] = packed;
+            size++;
+            return true;
+        }
+
+        @Override
+        public boolean contains(long tick, int packed) {
+            if (tick == 0 && packed == 0) return zero;
+            return slot(tick, packed) >= 0;
+        }
+
+        @Override
+        public boolean remove(long tick, int packed) {
+            if (tick == 0 && packed == 0) {
+                if (!zero) return false;
+                zero = false;
+                size--;
+                return true;
+            }
+            final int i = slot(tick, packed);
+            if (i < 0) return false;
+            shift(i);
+            size--;
+            return true;
+        }
+
+        /**
+         * backward shift deletion, keeps probe chains without tombstones
+         */
+        void shift(int gap) {
+            int j = gap;
+            for (; ; ) {
+                j = (j + 1) & mask;
+                final long t = ticks[j];
+                final int p = packs[j];
+                if (t == 0 && p == 0) break;
+                final int home = IdentityCodec.hash(t, p) & mask;
+                if (((j - home) & mask) >= ((j - gap) & mask)) {
+                    ticks[gap] = t;
+                    packs[gap] = p;
+                    gap = j;
+                }
+            }
+            ticks[gap] = 0;
+            packs[gap] = 0;
+        }
+
+        void grow() {
+            if (ticks.length == MAX_CAPACITY) throw new IllegalStateException("IdentitySet is full");
+            final long[] oldTicks = ticks;
+            final int[] oldPacks = packs;
+            allocate(oldTicks.length << 1);
+            for (int i = 0; i < oldTicks.length; i++) {
+                final long t = oldTicks[i];
+                final int p = oldPacks[i];
+                if (t == 0 && p == 0) continue;
+                final int s = ~slot(t, p);
+                ticks[s] = t;
+                packs[s] = p;
+            }
+        }
+
+        @Override
+        public void clear() {
+            Arrays.fill(ticks, 0);
+            Arrays.fill(packs, 0);
+            zero = false;
+            size = 0;
+        }
+
+        @Override
+        public void forEach(IdentityCodec.Visitor visitor) {
+            if (zero) visitor.accept(0, 0);
+            for (int i = 0; i < ticks.length; i++) {
+                final long t = ticks[i];
+                final int p = packs[i];
+                if (t != 0 || p != 0) visitor.accept(t, p);
+            }
+        }
+    }
+}
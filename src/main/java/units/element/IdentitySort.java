@@ -0,0 +1,342 @@
+package units.element;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Sorting of Identity in the packed 12 bytes representation.<br>
+ * Radix sort is LSD over 8 bit digits of (tick, packed), digits shared by every key are skipped,
+ * so a batch from a narrow time window only pays for the varying bytes.<br>
+ * Order is the same as {@link Identity#compareTo}.
+ *
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-05-26
+ */
+public interface IdentitySort {
+    /**
+     * below this size a plain insertion sort is used
+     */
+    int INSERTION_THRESHOLD = 32;
+    /**
+     * below this size parallel sort runs sequential
+     */
+    int PARALLEL_THRESHOLD = 1 << 16;
+
+    static void sort(long[] ticks, int[] packs) {
+        sort(ticks, packs, 0, ticks.length);
+    }
+
+    /**
+     * sort parallel arrays in [from, to)
+     */
+    static void sort(long[] ticks, int[] packs, int from, int to) {
+        Radix.check(ticks, packs, from, to);
+        Radix.sort(ticks, packs, null, from, to, new long[to - from], new int[to - from], null, 0);
+    }
+
+    static void sort(Identity[] ids) {
+        sort(ids, 0, ids.length);
+    }
+
+    /**
+     * sort ids in [from, to)
+     */
+    static void sort(Identity[] ids, int from, int to) {
+        Radix.checkFromToIndex(from, to, ids.length);
+        final int n = to - from;
+        final long[] ticks = new long[n];
+        final int[] packs = new int[n];
+        final Object[] refs = new Object[n];
+        for (int i = 0; i < n; i++) {
+            final Identity id = ids[from + i];
+            ticks[i] = id.getTick();
+            packs[i] = id.getPacked();
+            refs[i] = id;
+        }
+        Radix.sort(ticks, packs, refs, 0, n, new long[n], new int[n], new Object[n], 0);
+        System.arraycopy(refs, 0, ids, from, n);
+    }
+
+    static void parallelSort(long[] ticks, int[] packs) {
+        parallelSort(ticks, packs, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * fork join sort, chunks are radix sorted in parallel then merged.
+     */
+    static void parallelSort(long[] ticks, int[] packs, ForkJoinPool pool) {
+        Radix.check(ticks, packs, 0, ticks.length);
+        final int n = ticks.length;
+        if (n <= PARALLEL_THRESHOLD || pool.getParallelism() <= 1) {
+            sort(ticks, packs);
+            return;
+        }
+        pool.invoke(new Radix.ParallelSort(ticks, packs, null, new long[n], new int[n], null, 0, n,
+            chunkOf(n, pool)));
+    }
+
+    static void parallelSort(Identity[] ids) {
+        parallelSort(ids, ForkJoinPool.commonPool());
+    }
+
+    static void parallelSort(Identity[] ids, ForkJoinPool pool) {
+        final int n = ids.length;
+        if (n <= PARALLEL_THRESHOLD || pool.getParallelism() <= 1) {
+            sort(ids);
+            return;
+        }
+        final long[] ticks = new long[n];
+        final int[] packs = new int[n];
+        final Object[] refs = new Object[n];
+        for (int i = 0; i < n; i++) {
+            ticks[i] = ids[i].getTick();
+            packs[i] = ids[i].getPacked();
+            refs[i] = ids[i];
+        }
+        pool.invoke(new Radix.ParallelSort(ticks, packs, refs, new long[n], new int[n], new Object[n], 0, n,
+            chunkOf(n, pool)));
+        System.arraycopy(refs, 0, ids, 0, n);
+    }
+
+    static int chunkOf(int n, ForkJoinPool pool) {
+        return Math.max(PARALLEL_THRESHOLD >>> 2, n / (pool.getParallelism() << 2));
+    }
+
+    /**
+     * merge already sorted sources into one ordered iterator, sources are pulled lazily.
+     */
+    static Iterator<Identity> merge(List<? extends Iterator<? extends Identity>> sources) {
+        return new Merger(sources);
+    }
+
+    final class Radix {
+        private Radix() {
+        }
+
+        static void check(long[] ticks, int[] packs, int from, int to) {
+            if (ticks.length != packs.length) throw new IllegalArgumentException("ticks and packs length not match");
+            checkFromToIndex(from, to, ticks.length);
+        }
+
+        /**
+         * Objects.checkFromToIndex of java 9
+         */
+        static void checkFromToIndex(int from, int to, int length) {
+            if (from < 0 || from > to || to > length)
+                throw new IndexOutOfBoundsException("range [" + from + ", " + to + ") out of bounds for length " + length);
+        }
+
+        /**
+         * digit d of a key, 0 is the least significant byte of packed, 11 is the most significant of tick
+         */
+        static int digit(long tick, int packed, int d) {
+            return d < 4
+                ? (packed >>> (d << 3)) & 0xFF
+                : (int) ((tick ^ Long.MIN_VALUE) >>> ((d - 4) << 3)) & 0xFF;
+        }
+
+        /**
+         * LSD radix sort of [from, to), temp arrays are used from tFrom, refs may be null
+         */
+        static void sort(long[] ticks, int[] packs, Object[] refs, int from, int to,
+                         long[] tTicks, int[] tPacks, Object[] tRefs, int tFrom) {
+            final int n = to - from;
+            if (n <= INSERTION_THRESHOLD) {
+                insertion(ticks, packs, refs, from, to);
+                return;
+            }
+            final int[][] counts = new int[IdentityCodec.BYTES][256];
+            for (int i = from; i < to; i++) {
+                final long t = ticks[i] ^ Long.MIN_VALUE;
+                final int p = packs[i];
+                for (int d = 0; d < 4; d++) counts[d][(p >>> (d << 3)) & 0xFF]++;
+                for (int d = 0; d < 8; d++) counts[d + 4][(int) (t >>> (d << 3)) & 0xFF]++;
+            }
+            long[] sTicks = ticks, dTicks = tTicks;
+            int[] sPacks = packs, dPacks = tPacks;
+            Object[] sRefs = refs, dRefs = tRefs;
+            int sFrom = from, dFrom = tFrom;
+            final int[] offsets = new int[256];
+            for (int d = 0; d < IdentityCodec.BYTES; d++) {
+                final int[] count = counts[d];
+                if (count[digit(sTicks[sFrom], sPacks[sFrom], d)] == n) continue;
+                int sum = dFrom;
+                for (int b = 0; b < 256; b++) {
+                    offsets[b] = sum;
+                    sum += count[b];
+                }
+                for (int i = sFrom, end = sFrom + n; i < end; i++) {
+                    final int at = offsets[digit(sTicks[i], sPacks[i], d)]++;
+                    dTicks[at] = sTicks[i];
+                    dPacks[at] = sPacks[i];
+                    if (sRefs != null) dRefs[at] = sRefs[i];
+                }
+                final long[] xt = sTicks;
+                sTicks = dTicks;
+                dTicks = xt;
+                final int[] xp = sPacks;
+                sPacks = dPacks;
+                dPacks = xp;
+                final Object[] xr = sRefs;
+                sRefs = dRefs;
+                dRefs = xr;
+                final int xf = sFrom;
+                sFrom = dFrom;
+                dFrom = xf;
+            }
+            if (sTicks != ticks) {
+                System.arraycopy(sTicks, sFrom, ticks, from, n);
+                System.arraycopy(sPacks, sFrom, packs, from, n);
+                if (refs != null) System.arraycopy(sRefs, sFrom, refs, from, n);
+            }
+        }
+
+        static void insertion(long[] ticks, int[] packs, Object[] refs, int from, int to) {
+            for (int i = from + 1; i < to; i++) {
+                final long t = ticks[i];
+                final int p = packs[i];
+                final Object r = refs == null ? null : refs[i];
+                int j = i - 1;
+                while (j >= from && IdentityCodec.compare(ticks[j], packs[j], t, p) > 0) {
+                    ticks[j + 1] = ticks[j];
+                    packs[j + 1] = packs[j];
+                    if (refs != null) refs[j + 1] = refs[j];
+                    j--;
+                }
+                ticks[j + 1] = t;
+                packs[j + 1] = p;
+                if (refs != null) refs[j + 1] = r;
+            }
+        }
+
+        /**
+         * merge sorted [from, mid) and [mid, to) through temp arrays
+         */
+        static void merge(long[] ticks, int[] packs, Object[] refs,
+                          long[] tTicks, int[] tPacks, Object[] tRefs,
+                          int from, int mid, int to) {
+            if (IdentityCodec.compare(ticks[mid - 1], packs[mid - 1], ticks[mid], packs[mid]) <= 0) return;
+            System.arraycopy(ticks, from, tTicks, from, to - from);
+            System.arraycopy(packs, from, tPacks, from, to - from);
+            if (refs != null) System.arraycopy(refs, from, tRefs, from, to - from);
+            int i = from, j = mid, k = from;
+            while (i < mid && j < to) {
+                final int src = IdentityCodec.compare(tTicks[j], tPacks[j], tTicks[i], tPacks[i]) < 0 ? j++ : i++;
+                ticks[k] = tTicks[src];
+                packs[k] = tPacks[src];
+                if (refs != null) refs[k] = tRefs[src];
+                k++;
+            }
+            final int rest = i < mid ? i : j;
+            final int len = to - k;
+            System.arraycopy(tTicks, rest, ticks, k, len);
+            System.arraycopy(tPacks, rest, packs, k, len);
+            if (refs != null) System.arraycopy(tRefs, rest, refs, k, len);
+        }
+
+        static final class ParallelSort extends RecursiveAction {
+            private static final long serialVersionUID = 4212353405672316581L;
+            final long[] ticks;
+            final int[] packs;
+            final Object[] refs;
+            final long[] tTicks;
+            final int[] tPacks;
+            final Object[] tRefs;
+            final int from;
+            final int to;
+            final int chunk;
+
+            ParallelSort(long[] ticks, int[] packs, Object[] refs,
+                         long[] tTicks, int[] tPacks, Object[] tRefs,
+                         int from, int to, int chunk) {
+                this.ticks = ticks;
+                this.packs = packs;
+                this.refs = refs;
+                this.tTicks = tTicks;
+                this.tPacks = tPacks;
+                this.tRefs = tRefs;
+                this.from = from;
+                this.to = to;
+                this.chunk = chunk;
+            }
+
+            @Override
+            protected void compute() {
+                if (to - from <= chunk) {
+                    Radix.sort(ticks, packs, refs, from, to, tTicks, tPacks, tRefs, from);
+                    return;
+                }
+                final int mid = (from + to) >>> 1;
+                invokeAll(
+                    new ParallelSort(ticks, packs, refs, tTicks, tPacks, tRefs, from, mid, chunk),
+                    new ParallelSort(ticks, packs, refs, tTicks, tPacks, tRefs, mid, to, chunk));
+                merge(ticks, packs, refs, tTicks, tPacks, tRefs, from, mid, to);
+            }
+        }
+    }
+
+    /**
+     * k way merge with a binary heap of source indices
+     */
+    final class Merger implements Iterator<Identity> {
+        final Iterator<? extends Identity>[] sources;
+        final Identity[] heads;
+        final int[] heap;
+        int size;
+
+        @SuppressWarnings("unchecked")
+        Merger(List<? extends Iterator<? extends Identity>> sources) {
+            this.sources = (Iterator<? extends Identity>[]) sources.toArray(new Iterator<?>[0]);
+            this.heads = new Identity[this.sources.length];
+            this.heap = new int[this.sources.length];
+            for (int i = 0; i < this.sources.length; i++) {
+                if (this.sources[i].hasNext()) {
+                    heads[i] = this.sources[i].next();
+                    heap[size++] = i;
+                }
+            }
+            for (int i = (size >>> 1) - 1; i >= 0; i--) down(i);
+        }
+
+        boolean less(int a, int b) {
+            final Identity x = heads[a], y = heads[b];
+            final int c = IdentityCodec.compare(x.getTick(), x.getPacked(), y.getTick(), y.getPacked());
+            return c < 0 || (c == 0 && a < b);
+        }
+
+        void down(int i) {
+            final int s = heap[i];
+            for (; ; ) {
+                int c = (i << 1) + 1;
+                if (c >= size) break;
+                if (c + 1 < size && less(heap[c + 1], heap[c])) c++;
+                if (!less(heap[c], s)) break;
+                heap[i] = heap[c];
+                i = c;
+            }
+            heap[i] = s;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return size > 0;
+        }
+
+        @Override
+        public Identity next() {
+            if (size == 0) throw new NoSuchElementException();
+            final int s = heap[0];
+            final Identity result = heads[s];
+            if (sources[s].hasNext()) {
+                heads[s] = sources[s].next();
+            } else {
+                heads[s] = null;
+                heap[0] = heap[--size];
+            }
+            if (size > 0) down(0);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,468 @@
+package units.element;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * On disk Identity column store.<br>
+ * New ids append as 12 bytes records to an active log through {@link FileChannel},
+ * when the log reaches the seal threshold it is sorted and sealed into an immutable segment file.<br>
+ * Sealed segments are served from {@link MappedByteBuffer} by binary search, never loaded onto heap.
+ *
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-05-25
+ */
+public interface IdentityStore extends Closeable {
+    /**
+     * max records of one segment, keep a segment in one mapping
+     */
+    int MAX_SEGMENT_RECORDS = Integer.MAX_VALUE / IdentityCodec.BYTES;
+
+    /**
+     * add an Identity if not exists.<br>
+     * the record is buffered in memory, it is durable only after {@link #flush()}, {@link #seal()} or {@link #close()}.
+     *
+     * @return false if already exists
+     */
+    boolean add(long tick, int packed) throws IOException;
+
+    boolean contains(long tick, int packed);
+
+    /**
+     * @return count of stored ids less than the given one
+     */
+    long rank(long tick, int packed);
+
+    /**
+     * visit ids with tick in [fromTick, toTick), ordered inside each segment only.
+     */
+    void scan(long fromTick, long toTick, IdentityCodec.Visitor visitor);
+
+    long size();
+
+    /**
+     * @return count of sealed segments
+     */
+    int segments();
+
+    /**
+     * sort and seal the active log into a new segment, durable when returns
+     */
+    void seal() throws IOException;
+
+    /**
+     * force appended records to disk
+     */
+    void flush() throws IOException;
+
+    default boolean add(Identity identity) throws IOException {
+        return add(identity.getTick(), identity.getPacked());
+    }
+
+    default boolean contains(Identity identity) {
+        return contains(identity.getTick(), identity.getPacked());
+    }
+
+    default long rank(Identity identity) {
+        return rank(identity.getTick(), identity.getPacked());
+    }
+
+    default void scan(Instant from, Instant to, IdentityCodec.Visitor visitor) {
+        scan(Tick.Ticks.fromUTC(from), Tick.Ticks.fromUTC(to), visitor);
+    }
+
+    /**
+     * open or create a store in a directory
+     *
+     * @param dir           the directory
+     * @param sealThreshold records of active log to seal a segment
+     */
+    static IdentityStore open(Path dir, int sealThreshold) throws IOException {
+        return new MappedIdentityStore(dir, sealThreshold);
+    }
+
+    final class MappedIdentityStore implements IdentityStore {
+        static final String ACTIVE = "active.log";
+        static final String SEGMENT_PREFIX = "segment-";
+        static final String SEGMENT_SUFFIX = ".ids";
+        static final int WRITE_BUFFER_RECORDS = 4096;
+
+        static final class Segment {
+            final Path path;
+            final int sequence;
+            final MappedByteBuffer buffer;
+            final int count;
+            //region first and last id, kept on heap to skip a segment without touching its pages
+            final long firstTick;
+            final int firstPacked;
+            final long lastTick;
+            final int lastPacked;
+            //endregion
+
+            Segment(Path path, int sequence) throws IOException {
+                this.path = path;
+                this.sequence = sequence;
+                try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+                    this.count = (int) (ch.size() / IdentityCodec.BYTES);
+                    this.buffer = ch.map(FileChannel.MapMode.READ_ONLY, 0, (long) count * IdentityCodec.BYTES);
+                }
+                this.firstTick = count == 0 ? Long.MAX_VALUE : tick(0);
+                this.firstPacked = count == 0 ? -1 : packed(0);
+                this.lastTick = count == 0 ? Long.MIN_VALUE : tick(count - 1);
+                this.lastPacked = count == 0 ? 0 : packed(count - 1);
+            }
+
+            boolean isBefore(long tick, int packed) {
+                return IdentityCodec.compare(lastTick, lastPacked, tick, packed) < 0;
+            }
+
+            boolean isAfter(long tick, int packed) {
+                return IdentityCodec.compare(firstTick, firstPacked, tick, packed) > 0;
+            }
+
+            long tick(int i) {
+                return buffer.getLong(i * IdentityCodec.BYTES);
+            }
+
+            int packed(int i) {
+                return buffer.getInt(i * IdentityCodec.BYTES + 8);
+            }
+
+            /**
+             * @return first index not less than the given id
+             */
+            int lowerBound(long tick, int packed) {
+                int lo = 0, hi = count;
+                while (lo < hi) {
+                    final int mid = (lo + hi) >>> 1;
+                    if (IdentityCodec.compare(tick(mid), packed(mid), tick, packed) < 0) lo = mid + 1;
+                    else hi = mid;
+                }
+                return lo;
+            }
+
+            boolean contains(long tick, int packed) {
+                if (count == 0 || isBefore(tick, packed) || isAfter(tick, packed)) return false;
+                final int i = lowerBound(tick, packed);
+                return i < count && tick(i) == tick && packed(i) == packed;
+            }
+        }
+
+        final Path dir;
+        final int sealThreshold;
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        final List<Segment> segments = new ArrayList<>();
+        final FileChannel log;
+        final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(WRITE_BUFFER_RECORDS * IdentityCodec.BYTES);
+        IdentitySet active;
+        long[] activeTicks;
+        int[] activePacks;
+        int activeSize;
+        long sealedSize;
+        //region bounds of all sealed ids, time ordered adds pass sealed segments by one compare
+        long sealedMinTick = Long.MAX_VALUE;
+        int sealedMinPacked = -1;
+        long sealedMaxTick = Long.MIN_VALUE;
+        int sealedMaxPacked = 0;
+        //endregion
+
+        MappedIdentityStore(Path dir, int sealThreshold) throws IOException {
+            if (sealThreshold < 1 || sealThreshold > MAX_SEGMENT_RECORDS)
+                throw new IllegalArgumentException("seal threshold should between 1 and " + MAX_SEGMENT_RECORDS);
+            this.dir = Files.createDirectories(dir);
+            this.sealThreshold = sealThreshold;
+            loadSegments();
+            this.log = FileChannel.open(dir.resolve(ACTIVE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            loadActive();
+        }
+
+        void loadSegments() throws IOException {
+            try (Stream<Path> files = Files.list(dir)) {
+                final Path[] found = files
+                    .filter(p -> {
+                        final String name = p.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toArray(Path[]::new);
+                for (Path p : found) addSegment(new Segment(p, sequenceOf(p)));
+            }
+        }
+
+        static int sequenceOf(Path p) {
+            final String name = p.getFileName().toString();
+            return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        }
+
+        /**
+         * reload active log, drop a partial tail record and records already sealed by an interrupted seal
+         */
+        void loadActive() throws IOException {
+            final long records = log.size() / IdentityCodec.BYTES;
+            resetActive((int) Math.max(16, Math.min(records, sealThreshold)));
+            if (records == 0) {
+                log.truncate(0);
+                return;
+            }
+            boolean dirty = log.size() != records * IdentityCodec.BYTES;
+            long position = 0;
+            for (long read = 0; read < records; ) {
+                writeBuffer.clear();
+                writeBuffer.limit((int) Math.min(writeBuffer.capacity(), (records - read) * IdentityCodec.BYTES));
+                while (writeBuffer.hasRemaining()) {
+                    final int n = log.read(writeBuffer, position);
+                    if (n < 0) throw new IOException("active log truncated while loading");
+                    position += n;
+                }
+                writeBuffer.flip();
+                while (writeBuffer.hasRemaining()) {
+                    final long tick = writeBuffer.getLong();
+                    final int packed = writeBuffer.getInt();
+                    read++;
+                    if (sealedContains(tick, packed) || !active.add(tick, packed)) {
+                        dirty = true;
+                        continue;
+                    }
+                    appendActive(tick, packed);
+                }
+            }
+            writeBuffer.clear();
+            if (dirty) rewriteActive();
+            log.position(log.size());
+        }
+
+        void resetActive(int expected) {
+            active = IdentitySet.create(expected);
+            activeTicks = new long[expected];
+            activePacks = new int[expected];
+            activeSize = 0;
+        }
+
+        void appendActive(long tick, int packed) {
+            if (activeSize == activeTicks.length) {
+                final int cap = (int) Math.min((long) activeSize << 1, MAX_SEGMENT_RECORDS);
+                activeTicks = Arrays.copyOf(activeTicks, cap);
+                activePacks = Arrays.copyOf(activePacks, cap);
+            }
+            activeTicks[activeSize] = tick;
+            activePacks[activeSize] = packed;
+            activeSize++;
+        }
+
+        void rewriteActive() throws IOException {
+            log.truncate(0);
+            log.position(0);
+            writeBuffer.clear();
+            for (int i = 0; i < activeSize; i++) {
+                if (!writeBuffer.hasRemaining()) drain();
+                IdentityCodec.writeBytes(activeTicks[i], activePacks[i], writeBuffer);
+            }
+            drain();
+            log.force(false);
+        }
+
+        void drain() throws IOException {
+            writeBuffer.flip();
+            while (writeBuffer.hasRemaining()) log.write(writeBuffer);
+            writeBuffer.clear();
+        }
+
+        void addSegment(Segment segment) {
+            segments.add(segment);
+            sealedSize += segment.count;
+            if (segment.count == 0) return;
+            if (IdentityCodec.compare(segment.firstTick, segment.firstPacked, sealedMinTick, sealedMinPacked) < 0) {
+                sealedMinTick = segment.firstTick;
+                sealedMinPacked = segment.firstPacked;
+            }
+            if (IdentityCodec.compare(segment.lastTick, segment.lastPacked, sealedMaxTick, sealedMaxPacked) > 0) {
+                sealedMaxTick = segment.lastTick;
+                sealedMaxPacked = segment.lastPacked;
+            }
+        }
+
+        /**
+         * out of sealed bounds is one compare, otherwise only segments whose range covers the id are searched
+         */
+        boolean sealedContains(long tick, int packed) {
+            if (sealedSize == 0
+                || IdentityCodec.compare(tick, packed, sealedMaxTick, sealedMaxPacked) > 0
+                || IdentityCodec.compare(tick, packed, sealedMinTick, sealedMinPacked) < 0) return false;
+            for (int i = segments.size() - 1; i >= 0; i--) {
+                if (segments.get(i).contains(tick, packed)) return true;
+            }
+            return false;
+        }
+
+        /**
+         * force the rename of a sealed segment to disk before the log is truncated.<br>
+         * directories can not be opened on some platforms (Windows), there the rename is left to the file system.
+         */
+        void forceDirectory() {
+            try (FileChannel ch = FileChannel.open(dir, StandardOpenOption.READ)) {
+                ch.force(true);
+            } catch (IOException ignored) {
+            }
+        }
+
+        @Override
+        public boolean add(long tick, int packed) throws IOException {
+            lock.writeLock().lock();
+            try {
+                if (active.contains(tick, packed) || sealedContains(tick, packed)) return false;
+                active.add(tick, packed);
+                appendActive(tick, packed);
+                if (!writeBuffer.hasRemaining()) drain();
+                IdentityCodec.writeBytes(tick, packed, writeBuffer);
+                if (activeSize >= sealThreshold) seal();
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public boolean contains(long tick, int packed) {
+            lock.readLock().lock();
+            try {
+                return active.contains(tick, packed) || sealedContains(tick, packed);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public long rank(long tick, int packed) {
+            lock.readLock().lock();
+            try {
+                long rank = 0;
+                for (Segment segment : segments) {
+                    if (segment.isBefore(tick, packed)) rank += segment.count;
+                    else if (!segment.isAfter(tick, packed)) rank += segment.lowerBound(tick, packed);
+                }
+                for (int i = 0; i < activeSize; i++) {
+                    if (IdentityCodec.compare(activeTicks[i], activePacks[i], tick, packed) < 0) rank++;
+                }
+                return rank;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public void scan(long fromTick, long toTick, IdentityCodec.Visitor visitor) {
+            lock.readLock().lock();
+            try {
+                for (Segment segment : segments) {
+                    if (segment.lastTick < fromTick || segment.firstTick >= toTick) continue;
+                    for (int i = segment.lowerBound(fromTick, 0); i < segment.count; i++) {
+                        final long tick = segment.tick(i);
+                        if (tick >= toTick) break;
+                        visitor.accept(tick, segment.packed(i));
+                    }
+                }
+                for (int i = 0; i < activeSize; i++) {
+                    final long tick = activeTicks[i];
+                    if (tick >= fromTick && tick < toTick) visitor.accept(tick, activePacks[i]);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public long size() {
+            lock.readLock().lock();
+            try {
+                return sealedSize + activeSize;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public int segments() {
+            lock.readLock().lock();
+            try {
+                return segments.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public void seal() throws IOException {
+            lock.writeLock().lock();
+            try {
+                if (activeSize == 0) return;
+                drain();
+                IdentitySort.sort(activeTicks, activePacks, 0, activeSize);
+                final int sequence = segments.isEmpty() ? 1 : segments.get(segments.size() - 1).sequence + 1;
+                final Path target = dir.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+                final Path temp = dir.resolve(target.getFileName() + ".tmp");
+                try (FileChannel ch = FileChannel.open(temp,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                    writeBuffer.clear();
+                    for (int i = 0; i < activeSize; i++) {
+                        if (!writeBuffer.hasRemaining()) {
+                            writeBuffer.flip();
+                            while (writeBuffer.hasRemaining()) ch.write(writeBuffer);
+                            writeBuffer.clear();
+                        }
+                        IdentityCodec.writeBytes(activeTicks[i], activePacks[i], writeBuffer);
+                    }
+                    writeBuffer.flip();
+                    while (writeBuffer.hasRemaining()) ch.write(writeBuffer);
+                    writeBuffer.clear();
+                    ch.force(true);
+                }
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                forceDirectory();
+                addSegment(new Segment(target, sequence));
+                log.truncate(0);
+                log.position(0);
+                log.force(true);
+                resetActive(Math.min(sealThreshold, 1 << 16));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            lock.writeLock().lock();
+            try {
+                drain();
+                log.force(false);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            lock.writeLock().lock();
+            try {
+                if (!log.isOpen()) return;
+                drain();
+                log.force(true);
+                log.close();
+                segments.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package units.element;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * In memory index of Identity bucketed by tick.<br>
+ * Each bucket covers a fixed span of ticks and holds its ids in primitive arrays,
+ * range scans visit only buckets overlapping the range and eviction drops whole buckets.<br>
+ * Buckets align to time, the kind flag of ticks is ignored.<br>
+ * Not thread safe.
+ *
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-05-27
+ */
+public interface IdentityTimeIndex {
+    void add(long tick, int packed);
+
+    default void add(Identity identity) {
+        add(identity.getTick(), identity.getPacked());
+    }
+
+    int size();
+
+    /**
+     * @return count of buckets
+     */
+    int buckets();
+
+    /**
+     * visit ids with tick in [fromTick, toTick), ordered by bucket, in insertion order inside a bucket.
+     */
+    void scan(long fromTick, long toTick, IdentityCodec.Visitor visitor);
+
+    default void scan(Instant from, Instant to, IdentityCodec.Visitor visitor) {
+        scan(Tick.Ticks.fromUTC(from), Tick.Ticks.fromUTC(to), visitor);
+    }
+
+    /**
+     * drop buckets entirely older than the tick
+     *
+     * @return count of dropped ids
+     */
+    int evictBefore(long tick);
+
+    default int evictBefore(Instant instant) {
+        return evictBefore(Tick.Ticks.fromUTC(instant));
+    }
+
+    void clear();
+
+    /**
+     * @param granularity span of one bucket, at least one tick (100 nanos)
+     */
+    static IdentityTimeIndex create(Duration granularity) {
+        final long ticks = granularity.toNanos() / 100;
+        if (ticks < 1) throw new IllegalArgumentException("granularity should not less than one tick");
+        return new BucketTimeIndex(ticks);
+    }
+
+    final class BucketTimeIndex implements IdentityTimeIndex {
+        static final int INITIAL_BUCKET_CAPACITY = 64;
+
+        static final class Bucket {
+            final long key;
+            long[] ticks = new long[INITIAL_BUCKET_CAPACITY];
+            int[] packs = new int[INITIAL_BUCKET_CAPACITY];
+            int size;
+
+            Bucket(long key) {
+                this.key = key;
+            }
+
+            void add(long tick, int packed) {
+                if (size == ticks.length) {
+                    ticks = Arrays.copyOf(ticks, size << 1);
+                    packs = Arrays.copyOf(packs, size << 1);
+                }
+                ticks[size] = tick;
+                packs[size] = packed;
+                size++;
+            }
+        }
+
+        final long span;
+        /**
+         * buckets ordered by key in [head, head + count)
+         */
+        Bucket[] buckets = new Bucket[16];
+        int head;
+        int count;
+        int size;
+
+        BucketTimeIndex(long span) {
+            this.span = span;
+        }
+
+        long keyOf(long tick) {
+            return (tick & Tick.Ticks.TicksMask) / span;
+        }
+
+        /**
+         * @return position of first bucket with key not less than the given key
+         */
+        int lowerBound(long key) {
+            int lo = head, hi = head + count;
+            while (lo < hi) {
+                final int mid = (lo + hi) >>> 1;
+                if (buckets[mid].key < key) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        Bucket bucket(long key) {
+            if (count > 0) {
+                final Bucket last = buckets[head + count - 1];
+                if (last.key == key) return last;
+                if (last.key < key) return insert(head + count, key);
+            }
+            final int at = lowerBound(key);
+            if (at < head + count && buckets[at].key == key) return buckets[at];
+            return insert(at, key);
+        }
+
+        Bucket insert(int at, long key) {
+            if (head + count == buckets.length) {
+                if (count < buckets.length >>> 1) {
+                    System.arraycopy(buckets, head, buckets, 0, count);
+                    Arrays.fill(buckets, count, head + count, null);
+                } else {
+                    final Bucket[] grown = new Bucket[buckets.length << 1];
+                    System.arraycopy(buckets, head, grown, 0, count);
+                    buckets = grown;
+                }
+                at -= head;
+                head = 0;
+            }
+            System.arraycopy(buckets, at, buckets, at + 1, head + count - at);
+            final Bucket bucket = new Bucket(key);
+            buckets[at] = bucket;
+            count++;
+            return bucket;
+        }
+
+        @Override
+        public void add(long tick, int packed) {
+            bucket(keyOf(tick)).add(tick, packed);
+            size++;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public int buckets() {
+            return count;
+        }
+
+        @Override
+        public void scan(long fromTick, long toTick, IdentityCodec.Visitor visitor) {
+            final long from = fromTick & Tick.Ticks.TicksMask;
+            final long to = toTick & Tick.Ticks.TicksMask;
+            if (from >= to) return;
+            final long firstKey = keyOf(from);
+            final long lastKey = keyOf(to - 1);
+            for (int i = lowerBound(firstKey), end = head + count; i < end; i++) {
+                final Bucket bucket = buckets[i];
+                if (bucket.key > lastKey) break;
+                final long[] ticks = bucket.ticks;
+                final int[] packs = bucket.packs;
+                if (bucket.key > firstKey && bucket.key < lastKey) {
+                    for (int j = 0; j < bucket.size; j++) visitor.accept(ticks[j], packs[j]);
+                } else {
+                    for (int j = 0; j < bucket.size; j++) {
+                        final long tick = ticks[j] & Tick.Ticks.TicksMask;
+                        if (tick >= from && tick < to) visitor.accept(ticks[j], packs[j]);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public int evictBefore(long tick) {
+            final long key = keyOf(tick);
+            int dropped = 0;
+            while (count > 0 && buckets[head].key < key) {
+                dropped += buckets[head].size;
+                buckets[head++] = null;
+                count--;
+            }
+            if (count == 0) head = 0;
+            size -= dropped;
+            return dropped;
+        }
+
+        @Override
+        public void clear() {
+            Arrays.fill(buckets, null);
+            head = 0;
+            count = 0;
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package units.element;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * a Result of int without boxing, same states as {@link Result}: value, error, both or nothing.
+ *
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-05-31
+ */
+public interface IntResult {
+    boolean isPresent();
+
+    /**
+     * @return the value, zero if not present
+     */
+    int getAsInt();
+
+    /**
+     * @throws Throwable the error, or {@link Result.Both.NothingExistsError} if nothing
+     */
+    int getOrThrow();
+
+    @Nullable Throwable getError();
+
+    default boolean hasError() {
+        return getError() != null;
+    }
+
+    default boolean isNothing() {
+        return !isPresent() && !hasError();
+    }
+
+    default int orElse(int other) {
+        return isPresent() ? getAsInt() : other;
+    }
+
+    /**
+     * never throw error, error of mapper becomes failure
+     */
+    IntResult map(IntUnaryOperator mapper);
+
+    IntResult mapError(Function<Throwable, Throwable> mapper);
+
+    <R> Result<R> mapToObj(IntFunction<R> mapper);
+
+    Result<Integer> boxed();
+
+    static IntResult ok(int value) {
+        return new IntResults(value, true, null);
+    }
+
+    static IntResult error(Throwable ex) {
+        return new IntResults(0, false,
+            Objects.requireNonNull(ex, "an error result should not with a null exception."));
+    }
+
+    static IntResult done(int value, Throwable ex) {
+        return new IntResults(value, true,
+            Objects.requireNonNull(ex, "an both result should not with a null exception."));
+    }
+
+    static IntResult nothing() {
+        return IntResults.NOTHING;
+    }
+
+    static IntResult with(IntSupplier supplier) {
+        try {
+            return ok(supplier.getAsInt());
+        } catch (Exception ex) {
+            return error(ex);
+        }
+    }
+
+    final class IntResults extends PrimitiveResult implements IntResult {
+        static final IntResult NOTHING = new IntResults(0, false, null);
+        final int value;
+
+        IntResults(int value, boolean present, Throwable error) {
+            super(present, error);
+            this.value = value;
+        }
+
+        @Override
+        public int getAsInt() {
+            return value;
+        }
+
+        @Override
+        public int getOrThrow() {
+            checkPresent();
+            return value;
+        }
+
+        @Override
+        public IntResult map(IntUnaryOperator mapper) {
+            if (!present) return this;
+            try {
+                return new IntResults(mapper.applyAsInt(value), true, error);
+            } catch (Exception ex) {
+                return error(ex);
+            }
+        }
+
+        @Override
+        public IntResult mapError(Function<Throwable, Throwable> mapper) {
+            return error == null ? this : new IntResults(value, present, mappedError(mapper));
+        }
+
+        @Override
+        public <R> Result<R> mapToObj(IntFunction<R> mapper) {
+            return toResult(() -> mapper.apply(value));
+        }
+
+        @Override
+        public Result<Integer> boxed() {
+            return toResult(() -> value);
+        }
+
+        @Override
+        public String toString() {
+            return describe("IntResult", value);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package units.element;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * a Result of long without boxing, same states as {@link Result}: value, error, both or nothing.
+ *
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-05-31
+ */
+public interface LongResult {
+    boolean isPresent();
+
+    /**
+     * @return the value, zero if not present
+     */
+    long getAsLong();
+
+    /**
+     * @throws Throwable the error, or {@link Result.Both.NothingExistsError} if nothing
+     */
+    long getOrThrow();
+
+    @Nullable Throwable getError();
+
+    default boolean hasError() {
+        return getError() != null;
+    }
+
+    default boolean isNothing() {
+        return !isPresent() && !hasError();
+    }
+
+    default long orElse(long other) {
+        return isPresent() ? getAsLong() : other;
+    }
+
+    /**
+     * never throw error, error of mapper becomes failure
+     */
+    LongResult map(LongUnaryOperator mapper);
+
+    LongResult mapError(Function<Throwable, Throwable> mapper);
+
+    <R> Result<R> mapToObj(LongFunction<R> mapper);
+
+    Result<Long> boxed();
+
+    static LongResult ok(long value) {
+        return new LongResults(value, true, null);
+    }
+
+    static LongResult error(Throwable ex) {
+        return new LongResults(0L, false,
+            Objects.requireNonNull(ex, "an error result should not with a null exception."));
+    }
+
+    static LongResult done(long value, Throwable ex) {
+        return new LongResults(value, true,
+            Objects.requireNonNull(ex, "an both result should not with a null exception."));
+    }
+
+    static LongResult nothing() {
+        return LongResults.NOTHING;
+    }
+
+    static LongResult with(LongSupplier supplier) {
+        try {
+            return ok(supplier.getAsLong());
+        } catch (Exception ex) {
+            return error(ex);
+        }
+    }
+
+    final class LongResults extends PrimitiveResult implements LongResult {
+        static final LongResult NOTHING = new LongResults(0L, false, null);
+        final long value;
+
+        LongResults(long value, boolean present, Throwable error) {
+            super(present, error);
+            this.value = value;
+        }
+
+        @Override
+        public long getAsLong() {
+            return value;
+        }
+
+        @Override
+        public long getOrThrow() {
+            checkPresent();
+            return value;
+        }
+
+        @Override
+        public LongResult map(LongUnaryOperator mapper) {
+            if (!present) return this;
+            try {
+                return new LongResults(mapper.applyAsLong(value), true, error);
+            } catch (Exception ex) {
+                return error(ex);
+            }
+        }
+
+        @Override
+        public LongResult mapError(Function<Throwable, Throwable> mapper) {
+            return error == null ? this : new LongResults(value, present, mappedError(mapper));
+        }
+
+        @Override
+        public <R> Result<R> mapToObj(LongFunction<R> mapper) {
+            return toResult(() -> mapper.apply(value));
+        }
+
+        @Override
+        public Result<Long> boxed() {
+            return toResult(() -> value);
+        }
+
+        @Override
+        public String toString() {
+            return describe("LongResult", value);
+        }
+    }
+}
@@ -3,6 +3,9 @@ package units.element;
 import lombok.AllArgsConstructor;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -79,7 +82,17 @@ public interface Monad<S extends Monad<S, T>, T> extends Supplier<T> {
         return act.apply(get());
     }
 
+    /**
+     * stages of a Sequence are lazy, fused into one pass run by a terminal: toList, toSet, reduce, forEach or get.<br>
+     * a stage keeps the source collection, not a copy, so changes made to the source before the terminal
+     * are seen by it. Functions of stages never run without a terminal, map no longer runs side effects by itself,
+     * use {@link #every(Consumer)} or {@link #forEach(Consumer)} for them.
+     */
     interface Sequence<S extends Sequence<S, T>, T> extends Monad<S, Collection<T>> {
+        /**
+         * default min source size to run a parallel Sequence on its pool, smaller ones run sequential
+         */
+        int DEFAULT_PARALLEL_THRESHOLD = 1 << 12;
 
         <R> Sequence<?, R> withSeq(Collection<R> value);
 
@@ -88,22 +101,110 @@ public interface Monad<S extends Monad<S, T>, T> extends Supplier<T> {
             return self();
         }
 
+        /**
+         * lazy, mapping runs at the terminal over the source as it is then
+         */
         default <R> Sequence<?, R> map(Function<T, R> mapping) {
-            List<R> list = new ArrayList<>();
-            for (T t : get()) {
-                R r = mapping.apply(t);
-                list.add(r);
-            }
-            return withSeq(list);
+            return LazySequence.of(get()).map(mapping);
         }
 
+        /**
+         * map into a set, the only copy made is the set itself
+         */
         default <R> Sequence<?, R> mapSet(Function<T, R> mapping) {
-            Set<R> set = new HashSet<>();
-            for (T t : get()) {
-                R r = mapping.apply(t);
-                set.add(r);
-            }
-            return withSeq(set);
+            return withSeq(map(mapping).toSet());
+        }
+
+        default Sequence<?, T> filter(Predicate<T> predicate) {
+            return LazySequence.of(get()).filter(predicate);
+        }
+
+        /**
+         * @param mapping null result is empty
+         */
+        default <R> Sequence<?, R> flatMap(Function<T, ? extends Iterable<R>> mapping) {
+            return LazySequence.of(get()).flatMap(mapping);
+        }
+
+        default Sequence<?, T> peek(Consumer<T> action) {
+            return LazySequence.of(get()).peek(action);
+        }
+
+        /**
+         * first n elements, elements after them are never pulled
+         */
+        default Sequence<?, T> take(long n) {
+            return LazySequence.of(get()).take(n);
+        }
+
+        default Sequence<?, T> drop(long n) {
+            return LazySequence.of(get()).drop(n);
+        }
+
+        /**
+         * parallel on the common pool
+         *
+         * @see #parallel(ForkJoinPool)
+         */
+        default Sequence<?, T> parallel() {
+            return parallel(ForkJoinPool.commonPool());
+        }
+
+        /**
+         * @see #parallel(ForkJoinPool, int)
+         */
+        default Sequence<?, T> parallel(ForkJoinPool pool) {
+            return parallel(pool, DEFAULT_PARALLEL_THRESHOLD);
+        }
+
+        /**
+         * run stages of toList, toSet and get on the pool, split into balanced chunks with encounter order kept.<br>
+         * falls back to sequential below the threshold, on a pool of single thread,
+         * or when take or drop is used. forEach, every and reduce are always sequential.
+         *
+         * @param threshold min source size to run on the pool
+         */
+        default Sequence<?, T> parallel(ForkJoinPool pool, int threshold) {
+            return LazySequence.of(get()).parallel(pool, threshold);
+        }
+
+        default Sequence<?, T> sequential() {
+            return self();
+        }
+
+        /**
+         * map on the common pool
+         *
+         * @see #parallel(ForkJoinPool)
+         */
+        default <R> Sequence<?, R> parallelMap(Function<T, R> mapping) {
+            return parallel().map(mapping);
+        }
+
+        default <R> Sequence<?, R> parallelMap(Function<T, R> mapping, ForkJoinPool pool) {
+            return parallel(pool).map(mapping);
+        }
+
+        default <R> Sequence<?, R> parallelMap(Function<T, R> mapping, ForkJoinPool pool, int threshold) {
+            return parallel(pool, threshold).map(mapping);
+        }
+
+        default List<T> toList() {
+            return new ArrayList<>(get());
+        }
+
+        default Set<T> toSet() {
+            return new HashSet<>(get());
+        }
+
+        default <R> R reduce(R identity, BiFunction<R, T, R> accumulator) {
+            R result = identity;
+            for (T t : get()) result = accumulator.apply(result, t);
+            return result;
+        }
+
+        default void forEach(Consumer<T> act) {
+            get().forEach(act);
         }
     }
 
@@ -147,6 +248,351 @@ public interface Monad<S extends Monad<S, T>, T> extends Supplier<T> {
         }
     }
 
+    /**
+     * Sequence of a source collection and stages not yet run.<br>
+     * Each stage returns a new Sequence, terminals run all stages in one pass without intermediate collections,
+     * outputs are presized when the size is known. {@link #get()} keeps its list, other terminals run again.<br>
+     * stages of a parallel Sequence may be called concurrently.
+     */
+    final class LazySequence<T> implements Sequence<LazySequence<T>, T> {
+        static final int MAP = 0;
+        static final int FILTER = 1;
+        static final int FLAT_MAP = 2;
+        static final int PEEK = 3;
+        static final int TAKE = 4;
+        static final int DROP = 5;
+
+        static final class Stage {
+            final int kind;
+            final Function<Object, Object> function;
+            final Predicate<Object> predicate;
+            final Consumer<Object> consumer;
+            final long count;
+
+            @SuppressWarnings("unchecked")
+            Stage(int kind, Function<?, ?> function, Predicate<?> predicate, Consumer<?> consumer, long count) {
+                this.kind = kind;
+                this.function = (Function<Object, Object>) function;
+                this.predicate = (Predicate<Object>) predicate;
+                this.consumer = (Consumer<Object>) consumer;
+                this.count = count;
+            }
+        }
+
+        /**
+         * state of one terminal run
+         */
+        static final class Run {
+            final Stage[] stages;
+            final long[] counts;
+            final Consumer<Object> sink;
+            /**
+             * index of the last tripped take, -1 if none. a fan out at i stops only for a take after i
+             */
+            int stopAt = -1;
+
+            Run(Stage[] stages, Consumer<Object> sink) {
+                this.stages = stages;
+                this.counts = new long[stages.length];
+                this.sink = sink;
+            }
+
+            void push(Object value, int from) {
+                for (int i = from; i < stages.length; i++) {
+                    final Stage stage = stages[i];
+                    switch (stage.kind) {
+                        case MAP:
+                            value = stage.function.apply(value);
+                            break;
+                        case FILTER:
+                            if (!stage.predicate.test(value)) return;
+                            break;
+                        case PEEK:
+                            stage.consumer.accept(value);
+                            break;
+                        case TAKE:
+                            // the last taken still flows down, nothing is pulled after it
+                            if (++counts[i] >= stage.count && i > stopAt) stopAt = i;
+                            break;
+                        case DROP:
+                            if (counts[i] < stage.count) {
+                                counts[i]++;
+                                return;
+                            }
+                            break;
+                        default:
+                            final Iterable<?> items = (Iterable<?>) stage.function.apply(value);
+                            if (items == null) return;
+                            for (Object item : items) {
+                                push(item, i + 1);
+                                if (stopAt > i) return;
+                            }
+                            return;
+                    }
+                }
+                sink.accept(value);
+            }
+        }
+
+        /**
+         * one leaf per chunk of a parallel run
+         */
+        static final class Split extends RecursiveAction {
+            private static final long serialVersionUID = 4437465926352316254L;
+            final Stage[] stages;
+            final List<?> items;
+            final List<?>[] parts;
+            final boolean exact;
+            final int from;
+            final int to;
+
+            Split(Stage[] stages, List<?> items, List<?>[] parts, boolean exact, int from, int to) {
+                this.stages = stages;
+                this.items = items;
+                this.parts = parts;
+                this.exact = exact;
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected void compute() {
+                if (to - from > 1) {
+                    final int mid = (from + to) >>> 1;
+                    invokeAll(new Split(stages, items, parts, exact, from, mid),
+                        new Split(stages, items, parts, exact, mid, to));
+                    return;
+                }
+                final int n = items.size();
+                final int begin = (int) ((long) from * n / parts.length);
+                final int end = (int) ((long) to * n / parts.length);
+                final List<Object> part = exact ? new ArrayList<>(end - begin) : new ArrayList<>();
+                final Run run = new Run(stages, part::add);
+                for (int i = begin; i < end; i++) run.push(items.get(i), 0);
+                parts[from] = part;
+            }
+        }
+
+        final Collection<?> source;
+        final Stage[] stages;
+        /**
+         * null if sequential
+         */
+        final ForkJoinPool pool;
+        final int threshold;
+        /**
+         * result of {@link #get()}, volatile to publish the list safely to other threads
+         */
+        volatile List<T> materialized;
+
+        LazySequence(Collection<?> source, Stage[] stages, ForkJoinPool pool, int threshold) {
+            this.source = source;
+            this.stages = stages;
+            this.pool = pool;
+            this.threshold = threshold;
+        }
+
+        static <T> LazySequence<T> of(Collection<T> source) {
+            return new LazySequence<>(Objects.requireNonNull(source), new Stage[0], null, DEFAULT_PARALLEL_THRESHOLD);
+        }
+
+        <R> LazySequence<R> then(Stage stage) {
+            final Stage[] next = Arrays.copyOf(stages, stages.length + 1);
+            next[stages.length] = stage;
+            return new LazySequence<>(source, next, pool, threshold);
+        }
+
+        @Override
+        public LazySequence<T> parallel(ForkJoinPool pool) {
+            return parallel(pool, DEFAULT_PARALLEL_THRESHOLD);
+        }
+
+        @Override
+        public LazySequence<T> parallel(ForkJoinPool pool, int threshold) {
+            return new LazySequence<>(source, stages, Objects.requireNonNull(pool), threshold);
+        }
+
+        @Override
+        public LazySequence<T> sequential() {
+            return pool == null ? this : new LazySequence<>(source, stages, null, threshold);
+        }
+
+        boolean runParallel() {
+            if (pool == null || materialized != null || pool.getParallelism() < 2) return false;
+            for (Stage stage : stages) if (stage.kind == TAKE || stage.kind == DROP) return false;
+            return source.size() >= threshold;
+        }
+
+        /**
+         * @return outputs of each chunk, in encounter order
+         */
+        List<?>[] parallelParts() {
+            final List<?> items = source instanceof List && source instanceof RandomAccess ? (List<?>) source
+                : Arrays.asList(source.toArray());
+            final int n = items.size();
+            final List<?>[] parts = new List<?>[Math.max(1, Math.min(n, pool.getParallelism() << 2))];
+            // without filter and flatMap each chunk outputs one per input
+            final boolean exact = expectedSize() == n;
+            pool.invoke(new Split(stages, items, parts, exact, 0, parts.length));
+            return parts;
+        }
+
+        static int sizeOf(List<?>[] parts) {
+            int size = 0;
+            for (List<?> part : parts) size += part.size();
+            return size;
+        }
+
+        @SuppressWarnings("unchecked")
+        <C extends Collection<T>> C addAll(List<?>[] parts, C out) {
+            for (List<?> part : parts) out.addAll((List<T>) part);
+            return out;
+        }
+
+        /**
+         * @return exact count of output, -1 if unknown
+         */
+        long expectedSize() {
+            long size = source.size();
+            for (Stage stage : stages) {
+                switch (stage.kind) {
+                    case FILTER:
+                    case FLAT_MAP:
+                        return -1;
+                    case TAKE:
+                        size = Math.min(size, Math.max(0, stage.count));
+                        break;
+                    case DROP:
+                        size = Math.max(0, size - Math.max(0, stage.count));
+                        break;
+                    default:
+                        break;
+                }
+            }
+            return size;
+        }
+
+        @SuppressWarnings("unchecked")
+        void drain(Consumer<? super T> sink) {
+            final Collection<T> done = materialized;
+            if (done != null) {
+                done.forEach(sink);
+                return;
+            }
+            for (Stage stage : stages) if (stage.kind == TAKE && stage.count <= 0) return;
+            final Run run = new Run(stages, (Consumer<Object>) sink);
+            if (source instanceof List && source instanceof RandomAccess) {
+                final List<?> list = (List<?>) source;
+                for (int i = 0, n = list.size(); i < n && run.stopAt < 0; i++) run.push(list.get(i), 0);
+            } else {
+                for (Object value : source) {
+                    run.push(value, 0);
+                    if (run.stopAt >= 0) break;
+                }
+            }
+        }
+
+        @Override
+        public <R> LazySequence<R> map(Function<T, R> mapping) {
+            return then(new Stage(MAP, Objects.requireNonNull(mapping), null, null, 0));
+        }
+
+        @Override
+        public LazySequence<T> filter(Predicate<T> predicate) {
+            return then(new Stage(FILTER, null, Objects.requireNonNull(predicate), null, 0));
+        }
+
+        @Override
+        public <R> LazySequence<R> flatMap(Function<T, ? extends Iterable<R>> mapping) {
+            return then(new Stage(FLAT_MAP, Objects.requireNonNull(mapping), null, null, 0));
+        }
+
+        @Override
+        public LazySequence<T> peek(Consumer<T> action) {
+            return then(new Stage(PEEK, null, null, Objects.requireNonNull(action), 0));
+        }
+
+        @Override
+        public LazySequence<T> take(long n) {
+            return then(new Stage(TAKE, null, null, null, n));
+        }
+
+        @Override
+        public LazySequence<T> drop(long n) {
+            return then(new Stage(DROP, null, null, null, n));
+        }
+
+        @Override
+        public List<T> toList() {
+            if (runParallel()) {
+                final List<?>[] parts = parallelParts();
+                return addAll(parts, new ArrayList<>(sizeOf(parts)));
+            }
+            final long size = expectedSize();
+            final List<T> list = size >= 0 ? new ArrayList<>((int) Math.min(size, Integer.MAX_VALUE - 8))
+                : new ArrayList<>();
+            drain(list::add);
+            return list;
+        }
+
+        @Override
+        public Set<T> toSet() {
+            if (runParallel()) {
+                final List<?>[] parts = parallelParts();
+                return addAll(parts, new HashSet<>(Math.max(16, sizeOf(parts) / 3 * 4 + 1)));
+            }
+            final long size = expectedSize();
+            final Set<T> set = size >= 0 ? new HashSet<>((int) Math.min(size / 3 * 4 + 1, Integer.MAX_VALUE - 8))
+                : new HashSet<>();
+            drain(set::add);
+            return set;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <R> R reduce(R identity, BiFunction<R, T, R> accumulator) {
+            final Object[] result = {identity};
+            drain(t -> result[0] = accumulator.apply((R) result[0], t));
+            return (R) result[0];
+        }
+
+        @Override
+        public void forEach(Consumer<T> act) {
+            drain(act);
+        }
+
+        @Override
+        public LazySequence<T> every(Consumer<T> act) {
+            drain(act);
+            return this;
+        }
+
+        /**
+         * run stages and keep the list, racing callers may each run the stages once
+         */
+        @Override
+        public Collection<T> get() {
+            List<T> list = materialized;
+            if (list == null) materialized = list = toList();
+            return list;
+        }
+
+        @Override
+        public <R> Monad<?, R> with(R value) {
+            return new MonadSingle<>(value);
+        }
+
+        @Override
+        public LazySequence<T> self() {
+            return this;
+        }
+
+        @Override
+        public <X> Sequence<?, X> withSeq(Collection<X> value) {
+            return new MonadSequence<>(value);
+        }
+    }
+
     @AllArgsConstructor(staticName = "of")
     class MonadSingle<T> implements Monad<MonadSingle<T>, T> {
         protected final T value;
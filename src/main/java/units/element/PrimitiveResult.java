@@ -0,0 +1,65 @@
+package units.element;
+
+import lombok.SneakyThrows;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * presence and error shared by {@link IntResult}, {@link LongResult} and {@link DoubleResult},
+ * the primitive value lives in subclasses.
+ *
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-05-31
+ */
+abstract class PrimitiveResult {
+    final boolean present;
+    final Throwable error;
+
+    PrimitiveResult(boolean present, Throwable error) {
+        this.present = present;
+        this.error = error;
+    }
+
+    public boolean isPresent() {
+        return present;
+    }
+
+    public @Nullable Throwable getError() {
+        return error;
+    }
+
+    /**
+     * throw the error, or {@link Result.Both.NothingExistsError} if nothing
+     */
+    @SneakyThrows
+    void checkPresent() {
+        if (error != null) throw error;
+        if (!present) throw Result.Both.NothingExistsError.builder().build();
+    }
+
+    Throwable mappedError(Function<Throwable, Throwable> mapper) {
+        return Objects.requireNonNull(mapper.apply(error), "error mapping should not return null.");
+    }
+
+    /**
+     * @param value called only when present, error thrown by it becomes failure
+     */
+    <R> Result<R> toResult(Supplier<R> value) {
+        if (!present) return error == null ? Result.nothing() : Result.error(error);
+        try {
+            final R r = Objects.requireNonNull(value.get(), "mapping result should not return null.");
+            return error == null ? Result.ok(r) : Result.done(r, error);
+        } catch (Exception ex) {
+            return Result.error(ex);
+        }
+    }
+
+    String describe(String type, Object value) {
+        if (present) return error == null ? type + '{' + value + '}' : type + '{' + value + ", " + error + '}';
+        return error == null ? type + "{nothing}" : type + '{' + error + '}';
+    }
+}
@@ -5,11 +5,18 @@ import lombok.experimental.SuperBuilder;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
+import java.util.Collection;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 import static units.element.Result.Both.NOTHING;
 
@@ -59,6 +66,42 @@ public interface Result<T> {
 
     Result<T> mapError(Function<Throwable, Throwable> mapper);
 
+    /**
+     * never throw error
+     */
+    default IntResult mapToInt(ToIntFunction<T> mapper) {
+        final T value = getValue();
+        if (value == null) return hasError() ? IntResult.error(getError()) : IntResult.nothing();
+        try {
+            final int v = mapper.applyAsInt(value);
+            return hasError() ? IntResult.done(v, getError()) : IntResult.ok(v);
+        } catch (Exception ex) {
+            return IntResult.error(ex);
+        }
+    }
+
+    default LongResult mapToLong(ToLongFunction<T> mapper) {
+        final T value = getValue();
+        if (value == null) return hasError() ? LongResult.error(getError()) : LongResult.nothing();
+        try {
+            final long v = mapper.applyAsLong(value);
+            return hasError() ? LongResult.done(v, getError()) : LongResult.ok(v);
+        } catch (Exception ex) {
+            return LongResult.error(ex);
+        }
+    }
+
+    default DoubleResult mapToDouble(ToDoubleFunction<T> mapper) {
+        final T value = getValue();
+        if (value == null) return hasError() ? DoubleResult.error(getError()) : DoubleResult.nothing();
+        try {
+            final double v = mapper.applyAsDouble(value);
+            return hasError() ? DoubleResult.done(v, getError()) : DoubleResult.ok(v);
+        } catch (Exception ex) {
+            return DoubleResult.error(ex);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     static <T> Result<T> nothing() {
         return (Result<T>) NOTHING;
@@ -87,6 +130,92 @@ public interface Result<T> {
         }
     }
 
+    /**
+     * a Result computed as {@link #with(Supplier)} on first access, at most once even when shared between threads.
+     */
+    static <T> Result<T> lazy(@NotNull Supplier<T> supplier) {
+        return new Both.Lazy<>(Objects.requireNonNull(supplier));
+    }
+
+    /**
+     * skip the supplier when the deadline is already expired.<br>
+     * supplier may abort by {@link Deadline#check()}, a value returned after the deadline is kept with the timeout error.
+     */
+    static <T> Result<T> with(@NotNull Deadline deadline, @NotNull Supplier<T> supplier) {
+        if (deadline.isExpired()) return error(deadline.toError());
+        try {
+            final T value = supplier.get();
+            if (!deadline.isExpired()) return ok(value);
+            return value == null ? error(deadline.toError()) : done(value, deadline.toError());
+        } catch (Exception ex) {
+            return error(ex);
+        }
+    }
+
+    /**
+     * run the supplier on the executor, as {@link #with(Supplier)}
+     */
+    static <T> AsyncResult<T> async(@NotNull Supplier<T> supplier, @NotNull Executor executor) {
+        return AsyncResult.supply(supplier, executor);
+    }
+
+    static <T> AsyncResult<T> async(@NotNull Supplier<T> supplier) {
+        return AsyncResult.supply(supplier, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param delay wait before a second attempt, such as observed p95 latency
+     * @see AsyncResult#hedge(Supplier, long, Executor, AttemptListener)
+     */
+    static <T> AsyncResult<T> hedged(@NotNull Supplier<T> supplier, @NotNull Duration delay,
+                                     @NotNull Executor executor) {
+        return AsyncResult.hedge(supplier, delay.toNanos(), executor, AttemptListener.NONE);
+    }
+
+    static <T> AsyncResult<T> hedged(@NotNull Supplier<T> supplier, @NotNull Duration delay,
+                                     @NotNull Executor executor, @NotNull AttemptListener listener) {
+        return AsyncResult.hedge(supplier, delay.toNanos(), executor, listener);
+    }
+
+    /**
+     * retry on the common pool
+     *
+     * @see AsyncResult#retry(Supplier, RetryPolicy, Executor, AttemptListener)
+     */
+    static <T> AsyncResult<T> retry(@NotNull Supplier<T> supplier, @NotNull RetryPolicy policy) {
+        return AsyncResult.retry(supplier, policy, ForkJoinPool.commonPool(), AttemptListener.NONE);
+    }
+
+    static <T> AsyncResult<T> retry(@NotNull Supplier<T> supplier, @NotNull RetryPolicy policy,
+                                    @NotNull Executor executor, @NotNull AttemptListener listener) {
+        return AsyncResult.retry(supplier, policy, executor, listener);
+    }
+
+    /**
+     * evaluate suppliers in parallel on the common pool
+     *
+     * @see ResultPartition#evaluate(Collection, ForkJoinPool, boolean)
+     */
+    static <T> ResultPartition<T> all(@NotNull Collection<? extends Supplier<? extends T>> suppliers) {
+        return ResultPartition.evaluate(suppliers, false);
+    }
+
+    /**
+     * @param shortCircuit stop starting suppliers once any failed
+     */
+    static <T> ResultPartition<T> all(@NotNull Collection<? extends Supplier<? extends T>> suppliers,
+                                      boolean shortCircuit) {
+        return ResultPartition.evaluate(suppliers, shortCircuit);
+    }
+
+    /**
+     * @return a reusable pipeline of fused stages
+     * @see ResultPipeline
+     */
+    static <T> ResultPipeline<T, T> pipeline() {
+        return ResultPipeline.of();
+    }
+
     static <T> Result<T> withOptional(@NotNull Supplier<Optional<T>> supplier, @Nullable Supplier<Exception> notExists) {
         try {
             return ok(supplier.get().orElseThrow(notExists == null ? () -> Errors.notExists("data not exists") : notExists));
@@ -172,6 +301,61 @@ public interface Result<T> {
             }
         }
 
+        static final class Lazy<T> implements Result<T> {
+            private Supplier<T> supplier;
+            private volatile Result<T> result;
+
+            Lazy(Supplier<T> supplier) {
+                this.supplier = supplier;
+            }
+
+            Result<T> get() {
+                Result<T> r = result;
+                if (r != null) return r;
+                synchronized (this) {
+                    r = result;
+                    if (r == null) {
+                        r = Result.with(supplier);
+                        result = r;
+                        // release captured state
+                        supplier = null;
+                    }
+                    return r;
+                }
+            }
+
+            @Override
+            public @Nullable T getValue() {
+                return get().getValue();
+            }
+
+            @Override
+            public @NotNull T getOrThrow() {
+                return get().getOrThrow();
+            }
+
+            @Override
+            public @Nullable Throwable getError() {
+                return get().getError();
+            }
+
+            @Override
+            public <R> Result<R> map(Function<T, R> mapper) {
+                return get().map(mapper);
+            }
+
+            @Override
+            public Result<T> mapError(Function<Throwable, Throwable> mapper) {
+                return get().mapError(mapper);
+            }
+
+            @Override
+            public String toString() {
+                final Result<T> r = result;
+                return r == null ? "Result.lazy{pending}" : "Result.lazy{" + r + '}';
+            }
+        }
+
         private final T value;
         private final Throwable error;
 
@@ -0,0 +1,300 @@
+package units.element;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import static units.element.Tick.Ticks.TicksMask;
+
+/**
+ * Bounded cache of Results, failures are cached too (negative caching).<br>
+ * A Result with error or without value lives for the failure TTL, a value for the success TTL,
+ * expiry is checked against {@link TimeSource#coarse()}.
+ * Concurrent misses of a key are coalesced into one loader call.<br>
+ * Over the bound a new key is only admitted if used more often than the oldest key,
+ * use counts are estimated by a count-min sketch that halves periodically.
+ *
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-06-02
+ */
+public interface ResultCache<K, T> {
+    /**
+     * cached result or load it, never throw exception.<br>
+     * an {@link Error} thrown by loader is thrown to the loading caller and not cached.
+     */
+    Result<T> get(@NotNull K key);
+
+    /**
+     * @return cached result not expired, null if absent or loading
+     */
+    @Nullable Result<T> getIfPresent(@NotNull K key);
+
+    void invalidate(@NotNull K key);
+
+    void clear();
+
+    int size();
+
+    long hits();
+
+    long misses();
+
+    long evictions();
+
+    /**
+     * @param maxSize    max entries, may be exceeded shortly under contention
+     * @param successTtl lifetime of results with value
+     * @param failureTtl lifetime of results with error or nothing, zero to not cache them
+     * @param loader     load the Result of a key, null is nothing, thrown error is failure
+     */
+    static <K, T> ResultCache<K, T> create(int maxSize, @NotNull Duration successTtl, @NotNull Duration failureTtl,
+                                           @NotNull Function<? super K, Result<T>> loader) {
+        return new TinyLfuCache<>(maxSize, successTtl.toNanos() / 100, failureTtl.toNanos() / 100,
+            Objects.requireNonNull(loader), TimeSource.coarse());
+    }
+
+    final class TinyLfuCache<K, T> implements ResultCache<K, T> {
+        /**
+         * max queue entries examined by one eviction
+         */
+        static final int EVICT_SCAN = 16;
+
+        static final class Node<K, T> {
+            final K key;
+            final CompletableFuture<Result<T>> future = new CompletableFuture<>();
+            /**
+             * written before result
+             */
+            long expireAt;
+            volatile Result<T> result;
+
+            Node(K key) {
+                this.key = key;
+            }
+        }
+
+        final int maxSize;
+        final long successTtl;
+        final long failureTtl;
+        final Function<? super K, Result<T>> loader;
+        final TimeSource clock;
+        final ConcurrentHashMap<K, Node<K, T>> map;
+        /**
+         * admission order of nodes, a node removed or replaced in map is stale and dropped when polled
+         */
+        final ConcurrentLinkedQueue<Node<K, T>> order = new ConcurrentLinkedQueue<>();
+        final AtomicInteger queued = new AtomicInteger();
+        final FrequencySketch sketch;
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder evictions = new LongAdder();
+
+        TinyLfuCache(int maxSize, long successTtl, long failureTtl, Function<? super K, Result<T>> loader,
+                     TimeSource clock) {
+            if (maxSize < 1) throw new IllegalArgumentException("max size should be positive");
+            if (successTtl < 0 || failureTtl < 0) throw new IllegalArgumentException("ttl should not be negative");
+            this.maxSize = maxSize;
+            this.successTtl = successTtl;
+            this.failureTtl = failureTtl;
+            this.loader = loader;
+            this.clock = clock;
+            this.map = new ConcurrentHashMap<>(Math.min(maxSize, 1 << 16));
+            this.sketch = new FrequencySketch(maxSize);
+        }
+
+        long now() {
+            return clock.tick() & TicksMask;
+        }
+
+        @Override
+        public Result<T> get(@NotNull K key) {
+            sketch.increment(key.hashCode());
+            for (; ; ) {
+                final Node<K, T> node = map.get(key);
+                if (node != null) {
+                    final Result<T> r = node.result;
+                    if (r == null) {
+                        // loading by another thread
+                        hits.increment();
+                        return node.future.join();
+                    }
+                    if (now() < node.expireAt) {
+                        hits.increment();
+                        return r;
+                    }
+                }
+                final Node<K, T> fresh = new Node<>(key);
+                if (node == null ? map.putIfAbsent(key, fresh) != null : !map.replace(key, node, fresh)) continue;
+                misses.increment();
+                final Result<T> r = load(fresh);
+                admit(fresh);
+                return r;
+            }
+        }
+
+        /**
+         * an error thrown by loader other than Exception removes the node and is thrown again,
+         * threads waiting on the node get it as failure.
+         */
+        Result<T> load(Node<K, T> node) {
+            Result<T> r;
+            try {
+                r = loader.apply(node.key);
+                if (r == null) r = Result.nothing();
+            } catch (Exception ex) {
+                r = Result.error(ex);
+            } catch (Throwable ex) {
+                map.remove(node.key, node);
+                node.future.complete(Result.error(ex));
+                throw ex;
+            }
+            node.expireAt = now() + (r.hasError() || !r.isPresent() ? failureTtl : successTtl);
+            node.result = r;
+            node.future.complete(r);
+            return r;
+        }
+
+        boolean overflow() {
+            return map.size() > maxSize || queued.get() > maxSize << 1;
+        }
+
+        void enqueue(Node<K, T> node) {
+            order.add(node);
+            queued.incrementAndGet();
+        }
+
+        /**
+         * enqueue a loaded node then scan the oldest: stale ones are dropped, expired ones evicted first,
+         * the oldest live one is compared with the new node by frequency when still over size.
+         */
+        void admit(Node<K, T> node) {
+            enqueue(node);
+            if (!overflow()) return;
+            final long now = now();
+            Node<K, T> victim = null;
+            for (int i = 0; i < EVICT_SCAN && overflow(); i++) {
+                final Node<K, T> n = order.poll();
+                if (n == null) break;
+                queued.decrementAndGet();
+                if (map.get(n.key) != n) continue;
+                if (n == node || n.result == null) {
+                    enqueue(n);
+                    continue;
+                }
+                if (now >= n.expireAt) {
+                    if (map.remove(n.key, n)) evictions.increment();
+                    continue;
+                }
+                if (victim == null && map.size() > maxSize) victim = n;
+                else enqueue(n);
+            }
+            if (victim == null) return;
+            if (map.size() > maxSize
+                && sketch.frequency(node.key.hashCode()) > sketch.frequency(victim.key.hashCode())) {
+                if (map.remove(victim.key, victim)) evictions.increment();
+                return;
+            }
+            enqueue(victim);
+            // keep the more frequent victim, reject the new node
+            if (map.size() > maxSize && map.remove(node.key, node)) evictions.increment();
+        }
+
+        @Override
+        public @Nullable Result<T> getIfPresent(@NotNull K key) {
+            final Node<K, T> node = map.get(key);
+            if (node == null) return null;
+            final Result<T> r = node.result;
+            return r != null && now() < node.expireAt ? r : null;
+        }
+
+        @Override
+        public void invalidate(@NotNull K key) {
+            map.remove(key);
+        }
+
+        @Override
+        public void clear() {
+            map.clear();
+            order.clear();
+            queued.set(0);
+        }
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+
+        @Override
+        public long hits() {
+            return hits.sum();
+        }
+
+        @Override
+        public long misses() {
+            return misses.sum();
+        }
+
+        @Override
+        public long evictions() {
+            return evictions.sum();
+        }
+    }
+
+    /**
+     * count-min sketch of 4 rows, counters saturate at 15 and all halve every 10 * width additions.<br>
+     * updates are racy on purpose, lost increments only make the estimate a bit lower.
+     */
+    final class FrequencySketch {
+        static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+        static final int MAX = 15;
+        final int[] table;
+        final int width;
+        final int sampleSize;
+        int additions;
+
+        FrequencySketch(int maxSize) {
+            this.width = Integer.highestOneBit(Math.max(16, Math.min(maxSize, 1 << 24)) - 1) << 1;
+            this.table = new int[width << 2];
+            this.sampleSize = width * 10;
+        }
+
+        int index(int hash, int row) {
+            long h = (hash + SEEDS[row]) * SEEDS[row];
+            h ^= h >>> 32;
+            return row * width + ((int) h & (width - 1));
+        }
+
+        void increment(int hash) {
+            boolean added = false;
+            for (int row = 0; row < 4; row++) {
+                final int i = index(hash, row);
+                if (table[i] < MAX) {
+                    table[i]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) reset();
+        }
+
+        int frequency(int hash) {
+            int min = MAX;
+            for (int row = 0; row < 4; row++) min = Math.min(min, table[index(hash, row)]);
+            return min;
+        }
+
+        void reset() {
+            additions = 0;
+            for (int i = 0; i < table.length; i++) table[i] >>>= 1;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package units.element;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Array;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/**
+ * Outcomes of many Results split into successes and failures, each with the index of its source.<br>
+ * A Result with error is a failure even if it has a value, others are successes.
+ *
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-06-01
+ */
+public interface ResultPartition<T> {
+    List<T> getSuccesses();
+
+    /**
+     * @return source index of each success, ascending
+     */
+    int[] getSuccessIndices();
+
+    List<Throwable> getFailures();
+
+    /**
+     * @return source index of each failure, ascending
+     */
+    int[] getFailureIndices();
+
+    /**
+     * @return count of sources never evaluated because of short circuit
+     */
+    int getSkipped();
+
+    default int size() {
+        return getSuccesses().size() + getFailures().size() + getSkipped();
+    }
+
+    default boolean hasFailure() {
+        return !getFailures().isEmpty();
+    }
+
+    /**
+     * @return all successes, or the first failure
+     */
+    default Result<List<T>> toResult() {
+        return hasFailure() ? Result.error(getFailures().get(0)) : Result.ok(getSuccesses());
+    }
+
+    /**
+     * evaluate on the common pool
+     *
+     * @see #evaluate(Collection, ForkJoinPool, boolean)
+     */
+    static <T> ResultPartition<T> evaluate(@NotNull Collection<? extends Supplier<? extends T>> suppliers,
+                                           boolean shortCircuit) {
+        return evaluate(suppliers, ForkJoinPool.commonPool(), shortCircuit);
+    }
+
+    /**
+     * evaluate suppliers as {@link Result#with(Supplier)} in parallel.<br>
+     * short circuit does not cancel suppliers already running, they run to the end and are counted,
+     * a supplier wants to stop early should check its own flag or deadline.
+     *
+     * @param shortCircuit stop starting suppliers once any failed, those never started are skipped
+     */
+    static <T> ResultPartition<T> evaluate(@NotNull Collection<? extends Supplier<? extends T>> suppliers,
+                                           @NotNull ForkJoinPool pool, boolean shortCircuit) {
+        final Supplier<? extends T>[] tasks =
+            suppliers.toArray(Evaluate.<Supplier<? extends T>>arrayOf(Supplier.class, 0));
+        final int n = tasks.length;
+        final Result<? extends T>[] results = Evaluate.arrayOf(Result.class, n);
+        final Evaluate<T> root = new Evaluate<>(tasks, results, shortCircuit ? new AtomicBoolean() : null, 0, n,
+            Math.max(1, n / (pool.getParallelism() << 3)));
+        if (n > 0) pool.invoke(root);
+        final List<T> successes = new ArrayList<>(n - root.failures - root.skipped);
+        final int[] successIndices = new int[n - root.failures - root.skipped];
+        final List<Throwable> failures = new ArrayList<>(root.failures);
+        final int[] failureIndices = new int[root.failures];
+        for (int i = 0; i < n; i++) {
+            final Result<? extends T> r = results[i];
+            if (r == null) continue;
+            if (r.hasError()) {
+                failureIndices[failures.size()] = i;
+                failures.add(r.getError());
+            } else {
+                successIndices[successes.size()] = i;
+                successes.add(r.getValue());
+            }
+        }
+        return new Partition<>(successes, successIndices, failures, failureIndices, root.skipped);
+    }
+
+    /**
+     * collect Results in encounter order, works with parallel streams.
+     */
+    static <T> Collector<Result<? extends T>, ?, ResultPartition<T>> collector() {
+        return Collector.of(Accumulator<T>::new, Accumulator::add, Accumulator::merge, Accumulator::finish);
+    }
+
+    /**
+     * @param expectedSize capacity of each accumulator, for parallel streams the expected size of one split
+     */
+    static <T> Collector<Result<? extends T>, ?, ResultPartition<T>> collector(int expectedSize) {
+        return Collector.of(() -> new Accumulator<T>(expectedSize), Accumulator::add, Accumulator::merge,
+            Accumulator::finish);
+    }
+
+    /**
+     * evaluate suppliers as {@link Result#with(Supplier)} while collecting
+     */
+    static <T> Collector<Supplier<? extends T>, ?, ResultPartition<T>> evaluating() {
+        return Collector.of(Accumulator<T>::new, (a, s) -> a.add(Result.with(s)), Accumulator::merge,
+            Accumulator::finish);
+    }
+
+    final class Partition<T> implements ResultPartition<T> {
+        final List<T> successes;
+        final int[] successIndices;
+        final List<Throwable> failures;
+        final int[] failureIndices;
+        final int skipped;
+
+        Partition(List<T> successes, int[] successIndices, List<Throwable> failures, int[] failureIndices,
+                  int skipped) {
+            this.successes = successes;
+            this.successIndices = successIndices;
+            this.failures = failures;
+            this.failureIndices = failureIndices;
+            this.skipped = skipped;
+        }
+
+        @Override
+        public List<T> getSuccesses() {
+            return successes;
+        }
+
+        @Override
+        public int[] getSuccessIndices() {
+            return successIndices;
+        }
+
+        @Override
+        public List<Throwable> getFailures() {
+            return failures;
+        }
+
+        @Override
+        public int[] getFailureIndices() {
+            return failureIndices;
+        }
+
+        @Override
+        public int getSkipped() {
+            return skipped;
+        }
+
+        @Override
+        public String toString() {
+            return "ResultPartition{successes=" + successes.size() + ", failures=" + failures.size()
+                + ", skipped=" + skipped + '}';
+        }
+    }
+
+    final class Evaluate<T> extends RecursiveAction {
+        private static final long serialVersionUID = -3164128841640921553L;
+        final Supplier<? extends T>[] tasks;
+        final Result<? extends T>[] results;
+        /**
+         * failed flag of short circuit, null if not short circuit
+         */
+        final AtomicBoolean failed;
+        final int from;
+        final int to;
+        final int chunk;
+        int failures;
+        int skipped;
+
+        @SuppressWarnings("unchecked")
+        static <X> X[] arrayOf(Class<?> component, int length) {
+            return (X[]) Array.newInstance(component, length);
+        }
+
+        Evaluate(Supplier<? extends T>[] tasks, Result<? extends T>[] results, AtomicBoolean failed,
+                 int from, int to, int chunk) {
+            this.tasks = tasks;
+            this.results = results;
+            this.failed = failed;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                for (int i = from; i < to; i++) {
+                    if (failed != null && failed.get()) {
+                        skipped += to - i;
+                        return;
+                    }
+                    final Result<? extends T> r = Result.with(tasks[i]);
+                    results[i] = r;
+                    if (r.hasError()) {
+                        failures++;
+                        if (failed != null) failed.set(true);
+                    }
+                }
+                return;
+            }
+            final int mid = (from + to) >>> 1;
+            final Evaluate<T> left = new Evaluate<>(tasks, results, failed, from, mid, chunk);
+            final Evaluate<T> right = new Evaluate<>(tasks, results, failed, mid, to, chunk);
+            invokeAll(left, right);
+            failures = left.failures + right.failures;
+            skipped = left.skipped + right.skipped;
+        }
+    }
+
+    /**
+     * mutable container of collector, a chain of presized segments.<br>
+     * merge links the right chain in constant time, finish copies all segments once into exact sized outputs.
+     */
+    final class Accumulator<T> {
+        final int capacity;
+        Object[] values;
+        /**
+         * flags of failure, by bit of local index
+         */
+        long[] failed;
+        int count;
+        int failures;
+        Accumulator<T> next;
+        Accumulator<T> tail = this;
+
+        Accumulator() {
+            this(16);
+        }
+
+        Accumulator(int capacity) {
+            this.capacity = Math.max(1, capacity);
+        }
+
+        void add(Result<? extends T> r) {
+            if (values == null) {
+                values = new Object[capacity];
+                failed = new long[((capacity - 1) >>> 6) + 1];
+            } else if (count == values.length) {
+                values = Arrays.copyOf(values, count << 1);
+                failed = Arrays.copyOf(failed, ((values.length - 1) >>> 6) + 1);
+            }
+            if (r.hasError()) {
+                failed[count >>> 6] |= 1L << count;
+                values[count++] = r.getError();
+                failures++;
+            } else values[count++] = r.getValue();
+        }
+
+        Accumulator<T> merge(Accumulator<T> right) {
+            tail.next = right;
+            tail = right.tail;
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        ResultPartition<T> finish() {
+            int total = 0;
+            int totalFailures = 0;
+            for (Accumulator<T> a = this; a != null; a = a.next) {
+                total += a.count;
+                totalFailures += a.failures;
+            }
+            final List<T> successes = new ArrayList<>(total - totalFailures);
+            final int[] successIndices = new int[total - totalFailures];
+            final List<Throwable> failures = new ArrayList<>(totalFailures);
+            final int[] failureIndices = new int[totalFailures];
+            int base = 0;
+            for (Accumulator<T> a = this; a != null; a = a.next) {
+                for (int i = 0; i < a.count; i++) {
+                    if ((a.failed[i >>> 6] & (1L << i)) != 0) {
+                        failureIndices[failures.size()] = base + i;
+                        failures.add((Throwable) a.values[i]);
+                    } else {
+                        successIndices[successes.size()] = base + i;
+                        successes.add((T) a.values[i]);
+                    }
+                }
+                base += a.count;
+            }
+            return new Partition<>(successes, successIndices, failures, failureIndices, 0);
+        }
+    }
+}
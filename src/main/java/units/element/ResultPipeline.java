@@ -0,0 +1,193 @@
+package units.element;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Reusable chain of Result stages fused into one loop.<br>
+ * Built once then applied to many inputs, stages pass a bare (value, error) pair,
+ * only the final Result is created. Stages follow {@link Result#map} and {@link Result#mapError},
+ * except errors thrown by stages become failure instead of thrown.<br>
+ * Immutable, each builder call returns a new pipeline, safe to share between threads.
+ *
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-05-31
+ */
+public interface ResultPipeline<I, O> extends Function<I, Result<O>> {
+    <R> ResultPipeline<I, R> map(@NotNull Function<? super O, ? extends R> mapper);
+
+    /**
+     * present value is replaced by the Result of mapper, its error replaces the error carried so far if any
+     */
+    <R> ResultPipeline<I, R> flatMap(@NotNull Function<? super O, Result<R>> mapper);
+
+    ResultPipeline<I, O> mapError(@NotNull Function<Throwable, Throwable> mapper);
+
+    /**
+     * present value not matching becomes failure of the rejection
+     */
+    ResultPipeline<I, O> filter(@NotNull Predicate<? super O> predicate,
+                                @NotNull Function<? super O, ? extends Throwable> rejection);
+
+    ResultPipeline<I, O> peek(@NotNull Consumer<? super O> action);
+
+    /**
+     * apply to a value, null input is nothing
+     */
+    @Override
+    Result<O> apply(I input);
+
+    /**
+     * apply to a Result as if the stages were called on it
+     */
+    Result<O> apply(@NotNull Result<I> input);
+
+    /**
+     * apply to inputs, results are written to out at the same index
+     */
+    default void applyAll(I[] inputs, Result<O>[] out) {
+        for (int i = 0; i < inputs.length; i++) out[i] = apply(inputs[i]);
+    }
+
+    /**
+     * @return count of stages
+     */
+    int size();
+
+    @SuppressWarnings("unchecked")
+    static <I> ResultPipeline<I, I> of() {
+        return (ResultPipeline<I, I>) Fused.EMPTY;
+    }
+
+    final class Fused<I, O> implements ResultPipeline<I, O> {
+        static final ResultPipeline<?, ?> EMPTY = new Fused<>(new Stage[0]);
+
+        static final int MAP = 0;
+        static final int MAP_ERROR = 1;
+        static final int FILTER = 2;
+        static final int PEEK = 3;
+        static final int FLAT_MAP = 4;
+
+        static final class Stage {
+            final int kind;
+            final Function<Object, Object> function;
+            final Predicate<Object> predicate;
+            final Consumer<Object> consumer;
+
+            @SuppressWarnings("unchecked")
+            Stage(int kind, Function<?, ?> function, Predicate<?> predicate, Consumer<?> consumer) {
+                this.kind = kind;
+                this.function = (Function<Object, Object>) function;
+                this.predicate = (Predicate<Object>) predicate;
+                this.consumer = (Consumer<Object>) consumer;
+            }
+        }
+
+        final Stage[] stages;
+
+        Fused(Stage[] stages) {
+            this.stages = stages;
+        }
+
+        <R> Fused<I, R> then(Stage stage) {
+            final Stage[] next = Arrays.copyOf(stages, stages.length + 1);
+            next[stages.length] = stage;
+            return new Fused<>(next);
+        }
+
+        @Override
+        public <R> ResultPipeline<I, R> map(@NotNull Function<? super O, ? extends R> mapper) {
+            return then(new Stage(MAP, Objects.requireNonNull(mapper), null, null));
+        }
+
+        @Override
+        public <R> ResultPipeline<I, R> flatMap(@NotNull Function<? super O, Result<R>> mapper) {
+            return then(new Stage(FLAT_MAP, Objects.requireNonNull(mapper), null, null));
+        }
+
+        @Override
+        public ResultPipeline<I, O> mapError(@NotNull Function<Throwable, Throwable> mapper) {
+            return then(new Stage(MAP_ERROR, Objects.requireNonNull(mapper), null, null));
+        }
+
+        @Override
+        public ResultPipeline<I, O> filter(@NotNull Predicate<? super O> predicate,
+                                           @NotNull Function<? super O, ? extends Throwable> rejection) {
+            return then(new Stage(FILTER, Objects.requireNonNull(rejection), Objects.requireNonNull(predicate), null));
+        }
+
+        @Override
+        public ResultPipeline<I, O> peek(@NotNull Consumer<? super O> action) {
+            return then(new Stage(PEEK, null, null, Objects.requireNonNull(action)));
+        }
+
+        @Override
+        public Result<O> apply(I input) {
+            return run(input, null, input != null);
+        }
+
+        @Override
+        public Result<O> apply(@NotNull Result<I> input) {
+            final I value = input.getValue();
+            final Throwable error = input.getError();
+            // a success Result of null value still maps, as Result#map does
+            return run(value, error, value != null || error == null);
+        }
+
+        @SuppressWarnings("unchecked")
+        Result<O> run(Object value, Throwable error, boolean mappable) {
+            for (final Stage stage : stages) {
+                try {
+                    switch (stage.kind) {
+                        case MAP:
+                            if (!mappable) break;
+                            value = Objects.requireNonNull(stage.function.apply(value),
+                                "mapping result should not return null.");
+                            break;
+                        case FLAT_MAP: {
+                            if (!mappable) break;
+                            final Result<?> r = Objects.requireNonNull((Result<?>) stage.function.apply(value),
+                                "mapping result should not return null.");
+                            if (r.hasError()) error = r.getError();
+                            value = r.getValue();
+                            mappable = value != null;
+                            break;
+                        }
+                        case MAP_ERROR:
+                            if (error == null) break;
+                            error = Objects.requireNonNull((Throwable) stage.function.apply(error),
+                                "error mapping should not return null.");
+                            break;
+                        case FILTER:
+                            if (value == null || stage.predicate.test(value)) break;
+                            error = Objects.requireNonNull((Throwable) stage.function.apply(value),
+                                "rejection should not return null.");
+                            value = null;
+                            mappable = false;
+                            break;
+                        case PEEK:
+                            if (value != null) stage.consumer.accept(value);
+                            break;
+                    }
+                } catch (Exception ex) {
+                    value = null;
+                    error = ex;
+                    mappable = false;
+                }
+            }
+            if (value == null) return error == null ? Result.nothing() : Result.error(error);
+            return error == null ? Result.ok((O) value) : Result.done((O) value, error);
+        }
+
+        @Override
+        public int size() {
+            return stages.length;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package units.element;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Stream support of Result.<br>
+ * {@link #untilFailure(Stream)} stops pulling from upstream once any failure is seen, in parallel streams too,
+ * {@link #toList()} keeps the first failure in encounter order and drops values after it.
+ *
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-06-02
+ */
+public interface ResultStreams {
+    /**
+     * all values, or the first failure in encounter order.<br>
+     * a Result with error is a failure even if it has a value, a nothing Result is a null element.
+     */
+    static <T> Collector<Result<? extends T>, ?, Result<List<T>>> toList() {
+        return toList(16);
+    }
+
+    /**
+     * @param expectedSize capacity of each accumulator, for parallel streams the expected size of one split
+     */
+    static <T> Collector<Result<? extends T>, ?, Result<List<T>>> toList(int expectedSize) {
+        return Collector.of(() -> new Collect<T>(expectedSize), Collect::add, Collect::merge, Collect::finish);
+    }
+
+    /**
+     * partition successes and failures with their indices
+     *
+     * @see ResultPartition#collector(int)
+     */
+    static <T> Collector<Result<? extends T>, ?, ResultPartition<T>> partitioning() {
+        return ResultPartition.collector();
+    }
+
+    static <T> Collector<Result<? extends T>, ?, ResultPartition<T>> partitioning(int expectedSize) {
+        return ResultPartition.collector(expectedSize);
+    }
+
+    /**
+     * a stream ending after the first failure, the failure itself is kept.<br>
+     * lazy upstream stages of elements not yet pulled never run. In parallel streams, each split stops
+     * once any split has seen a failure, elements already in progress still complete.
+     */
+    static <T> Stream<Result<T>> untilFailure(@NotNull Stream<Result<T>> stream) {
+        return StreamSupport.stream(new UntilFailure<>(stream.spliterator(), new AtomicBoolean()), stream.isParallel())
+            .onClose(stream::close);
+    }
+
+    /**
+     * collect a stream of Results, stop evaluation at the first failure.<br>
+     * for parallel streams the failure is the first in encounter order among those evaluated.
+     */
+    static <T> Result<List<T>> collect(@NotNull Stream<Result<T>> stream) {
+        return untilFailure(stream).collect(toList());
+    }
+
+    final class UntilFailure<T> implements Spliterator<Result<T>>, Consumer<Result<T>> {
+        final Spliterator<Result<T>> source;
+        /**
+         * shared by all splits
+         */
+        final AtomicBoolean failed;
+        Consumer<? super Result<T>> downstream;
+
+        UntilFailure(Spliterator<Result<T>> source, AtomicBoolean failed) {
+            this.source = source;
+            this.failed = failed;
+        }
+
+        @Override
+        public void accept(Result<T> r) {
+            if (r.hasError()) failed.set(true);
+            downstream.accept(r);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Result<T>> action) {
+            if (failed.get()) return false;
+            downstream = action;
+            return source.tryAdvance(this);
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Result<T>> action) {
+            downstream = action;
+            //noinspection StatementWithEmptyBody
+            while (!failed.get() && source.tryAdvance(this)) ;
+        }
+
+        @Override
+        public Spliterator<Result<T>> trySplit() {
+            if (failed.get()) return null;
+            final Spliterator<Result<T>> split = source.trySplit();
+            return split == null ? null : new UntilFailure<>(split, failed);
+        }
+
+        @Override
+        public long estimateSize() {
+            return failed.get() ? 0 : source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics() & ~(SIZED | SUBSIZED);
+        }
+
+        @Override
+        public Comparator<? super Result<T>> getComparator() {
+            return source.getComparator();
+        }
+    }
+
+    /**
+     * mutable container of {@link #toList()}, values are dropped once failed
+     */
+    final class Collect<T> {
+        ArrayList<T> values;
+        Throwable error;
+
+        Collect(int capacity) {
+            this.values = new ArrayList<>(Math.max(1, capacity));
+        }
+
+        void add(Result<? extends T> r) {
+            if (error != null) return;
+            if (r.hasError()) {
+                error = r.getError();
+                values = null;
+            } else values.add(r.getValue());
+        }
+
+        Collect<T> merge(Collect<T> right) {
+            if (error != null) return this;
+            if (right.error != null) return right;
+            values.addAll(right.values);
+            return this;
+        }
+
+        Result<List<T>> finish() {
+            return error != null ? Result.error(error) : Result.ok(values);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package units.element;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * Retry policy of exponential backoff with jitter, immutable.<br>
+ * Delay before attempt n+1 is {@code min(max, base * multiplier^(n-1))}, reduced by a random part of jitter.
+ *
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-06-01
+ */
+public interface RetryPolicy {
+    /**
+     * @return max attempts, including the first
+     */
+    int getMaxAttempts();
+
+    /**
+     * @return true if the error is worth another attempt
+     */
+    boolean shouldRetry(Throwable error);
+
+    /**
+     * @param attempt the attempt just failed, from 1
+     * @return nanos to wait before next attempt
+     */
+    long delayNanos(int attempt);
+
+    RetryPolicy withJitter(double jitter);
+
+    RetryPolicy retryOn(@NotNull Predicate<Throwable> retryable);
+
+    /**
+     * @param maxAttempts max attempts, including the first
+     * @param base        delay after the first failure
+     * @param max         max delay
+     */
+    static RetryPolicy of(int maxAttempts, @NotNull Duration base, @NotNull Duration max) {
+        return new Backoff(maxAttempts, base.toNanos(), max.toNanos(), 2.0, 0.5, e -> true);
+    }
+
+    /**
+     * fixed delay without jitter
+     */
+    static RetryPolicy fixed(int maxAttempts, @NotNull Duration delay) {
+        return new Backoff(maxAttempts, delay.toNanos(), delay.toNanos(), 1.0, 0, e -> true);
+    }
+
+    final class Backoff implements RetryPolicy {
+        final int maxAttempts;
+        final long base;
+        final long max;
+        final double multiplier;
+        final double jitter;
+        final Predicate<Throwable> retryable;
+
+        Backoff(int maxAttempts, long base, long max, double multiplier, double jitter,
+                Predicate<Throwable> retryable) {
+            if (maxAttempts < 1) throw new IllegalArgumentException("max attempts should be positive");
+            if (base < 0 || max < base) throw new IllegalArgumentException("invalid delay range");
+            if (jitter < 0 || jitter > 1) throw new IllegalArgumentException("jitter should in [0, 1]");
+            this.maxAttempts = maxAttempts;
+            this.base = base;
+            this.max = max;
+            this.multiplier = multiplier;
+            this.jitter = jitter;
+            this.retryable = retryable;
+        }
+
+        @Override
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        @Override
+        public boolean shouldRetry(Throwable error) {
+            return retryable.test(error);
+        }
+
+        @Override
+        public long delayNanos(int attempt) {
+            final double exp = Math.min((double) max, base * Math.pow(multiplier, attempt - 1));
+            final double reduce = jitter == 0 ? 0 : exp * jitter * ThreadLocalRandom.current().nextDouble();
+            return (long) (exp - reduce);
+        }
+
+        @Override
+        public RetryPolicy withJitter(double jitter) {
+            return new Backoff(maxAttempts, base, max, multiplier, jitter, retryable);
+        }
+
+        @Override
+        public RetryPolicy retryOn(@NotNull Predicate<Throwable> retryable) {
+            return new Backoff(maxAttempts, base, max, multiplier, jitter, Objects.requireNonNull(retryable));
+        }
+
+        @Override
+        public String toString() {
+            return "RetryPolicy{maxAttempts=" + maxAttempts + ", base=" + base + "ns, max=" + max
+                + "ns, multiplier=" + multiplier + ", jitter=" + jitter + '}';
+        }
+    }
+}
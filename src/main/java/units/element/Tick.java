@@ -4,7 +4,10 @@ import units.util.Groups;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import static units.element.Tick.Ticks.fromUTC;
 
@@ -20,10 +23,63 @@ public interface Tick {
 
     Instant toInstant();
 
+    default long epochSecond() {
+        return Ticks.epochSecond(toLong());
+    }
+
+    default int nanoOfSecond() {
+        return Ticks.nanoOfSecond(toLong());
+    }
+
+    default long epochMillis() {
+        return Ticks.epochMillis(toLong());
+    }
+
+    default boolean isLocal() {
+        return Ticks.isLocal(toLong());
+    }
+
+    /**
+     * @return ISO-8601 text of UTC
+     * @see TickFormat
+     */
+    default String format() {
+        return TickFormat.format(toLong());
+    }
+
+    default StringBuilder appendTo(StringBuilder builder) {
+        return TickFormat.format(toLong(), builder);
+    }
+
+    /**
+     * @return wall clock time in {@link TickZone#current()}
+     */
+    default LocalDateTime toLocalDateTime() {
+        return TickZone.current().toLocalDateTime(toLong());
+    }
+
+    default LocalDateTime toLocalDateTime(TickZone zone) {
+        return zone.toLocalDateTime(toLong());
+    }
+
+    /**
+     * @return wall clock ticks in the zone, as C# DateTime.ToLocalTime().Ticks
+     */
+    default long toLocalTicks(TickZone zone) {
+        return zone.toLocalTicks(toLong());
+    }
+
+    /**
+     * @see TimeSource#current()
+     */
     static Tick now() {
         return new Ticks(Ticks.fromNowUTC());
     }
 
+    static Tick now(TimeSource source) {
+        return new Ticks(source.tick());
+    }
+
     static Tick from(Instant instant) {
         return new Ticks(fromUTC(instant));
     }
@@ -32,13 +88,34 @@ public interface Tick {
         return new Ticks(tick);
     }
 
+    /**
+     * @throws IllegalArgumentException if not a valid ISO-8601 time
+     * @see TickFormat#parse(CharSequence)
+     */
+    static Tick parse(CharSequence text) {
+        return new Ticks(TickFormat.parse(text));
+    }
+
+    /**
+     * @return Local kind tick of the wall clock time in {@link TickZone#current()}
+     */
+    static Tick from(LocalDateTime dateTime) {
+        return new Ticks(TickZone.current().toBinary(dateTime));
+    }
+
     final class Ticks implements Tick {
         static final long KindUtc = 0x4000000000000000L;//1
         static final long KindLocal = 0x8000000000000000L;//2
         static final long TicksMask = 0x3FFFFFFFFFFFFFFFL;
         static final int KindShift = 62;
         static final int tickPerSec = 10_000_000;
+        static final int tickPerMilli = 10_000;
         static final long base = -62135596800L;
+        /**
+         * negative UTC ticks of Local kind are wrapped by this, as C# DateTime
+         */
+        static final long TicksCeiling = 0x4000000000000000L;
+        static final long TicksPerDay = 864_000_000_000L;
 
         /**
          * convert ticks to Instant
@@ -47,13 +124,249 @@ public interface Tick {
          * @return (timestamp, isLocalTime)
          */
         static Map.Entry<Instant, Boolean> from(long ticks) {
-            final long flag = ticks >>> KindShift;
-            final long tick = ticks & TicksMask;
-            final long sec = tick / tickPerSec;
-            final long nano = (tick % tickPerSec) * 100;
-            return Groups.entryOf(Instant.ofEpochSecond(sec + base, nano), flag == 2L);
+            return Groups.entryOf(toInstant(ticks), isLocal(ticks));
+        }
+
+        //region Primitive
+
+        /**
+         * @param ticks long from C# DateTime.toBinary()
+         * @return seconds from epoch
+         */
+        public static long epochSecond(long ticks) {
+            return (ticks & TicksMask) / tickPerSec + base;
+        }
+
+        /**
+         * @param ticks long from C# DateTime.toBinary()
+         * @return nano part of second, in 100 nanos precision
+         */
+        public static int nanoOfSecond(long ticks) {
+            return (int) ((ticks & TicksMask) % tickPerSec) * 100;
+        }
+
+        /**
+         * @param ticks long from C# DateTime.toBinary()
+         * @return millis from epoch
+         */
+        public static long epochMillis(long ticks) {
+            return (ticks & TicksMask) / tickPerMilli + base * 1000;
+        }
+
+        /**
+         * @param ticks long from C# DateTime.toBinary()
+         * @return dose have local flag
+         */
+        public static boolean isLocal(long ticks) {
+            return ticks >>> KindShift == 2L;
         }
 
+        /**
+         * fast path without allocation, overflows for spans over about 292 years.
+         *
+         * @return nanos from first to second, negative if second is before first
+         * @see #between(long, long)
+         */
+        public static long durationNanos(long first, long second) {
+            return ((second & TicksMask) - (first & TicksMask)) * 100;
+        }
+
+        public static Instant toInstant(long ticks) {
+            return Instant.ofEpochSecond(epochSecond(ticks), nanoOfSecond(ticks));
+        }
+        //endregion
+
+        //region Bulk
+        /**
+         * ticks of unix epoch
+         */
+        static final long epochTicks = -base * tickPerSec;
+        /**
+         * default length below which parallel conversions run sequential
+         */
+        public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 14;
+        /**
+         * epoch millis of tick zero and of the max tick, the range of {@link #fromEpochMillis}
+         */
+        static final long MIN_EPOCH_MILLIS = -epochTicks / tickPerMilli;
+        static final long MAX_EPOCH_MILLIS = (TicksMask - epochTicks) / tickPerMilli;
+
+        public static void toEpochMillis(long[] src, int srcPos, long[] dst, int dstPos, int length) {
+            checkRange(src.length, srcPos, dst.length, dstPos, length);
+            for (int i = 0; i < length; i++) {
+                dst[dstPos + i] = (src[srcPos + i] & TicksMask) / tickPerMilli - epochTicks / tickPerMilli;
+            }
+        }
+
+        /**
+         * epoch nanos fit a long only from 1677-09-21 to 2262-04-11
+         *
+         * @throws ArithmeticException if a tick is out of that range, dst before it is written
+         */
+        public static void toEpochNanos(long[] src, int srcPos, long[] dst, int dstPos, int length) {
+            checkRange(src.length, srcPos, dst.length, dstPos, length);
+            for (int i = 0; i < length; i++) {
+                dst[dstPos + i] = Math.multiplyExact((src[srcPos + i] & TicksMask) - epochTicks, 100L);
+            }
+        }
+
+        /**
+         * millis to ticks of UTC kind
+         *
+         * @throws IllegalArgumentException if a value is before year 1 or beyond the max tick,
+         *                                  dst before it is written
+         */
+        public static void fromEpochMillis(long[] src, int srcPos, long[] dst, int dstPos, int length) {
+            checkRange(src.length, srcPos, dst.length, dstPos, length);
+            for (int i = 0; i < length; i++) {
+                final long millis = src[srcPos + i];
+                if (millis < MIN_EPOCH_MILLIS || millis > MAX_EPOCH_MILLIS)
+                    throw new IllegalArgumentException("epoch millis out of tick range: " + millis);
+                dst[dstPos + i] = (millis * tickPerMilli + epochTicks) | KindUtc;
+            }
+        }
+
+        /**
+         * nanos to ticks of UTC kind, truncated to 100 nanos
+         */
+        public static void fromEpochNanos(long[] src, int srcPos, long[] dst, int dstPos, int length) {
+            checkRange(src.length, srcPos, dst.length, dstPos, length);
+            for (int i = 0; i < length; i++) {
+                dst[dstPos + i] = (Math.floorDiv(src[srcPos + i], 100) + epochTicks) | KindUtc;
+            }
+        }
+
+        public static void toInstants(long[] src, int srcPos, Instant[] dst, int dstPos, int length) {
+            checkRange(src.length, srcPos, dst.length, dstPos, length);
+            for (int i = 0; i < length; i++) {
+                final long tick = src[srcPos + i] & TicksMask;
+                dst[dstPos + i] = Instant.ofEpochSecond(tick / tickPerSec + base, (tick % tickPerSec) * 100);
+            }
+        }
+
+        public static long[] toEpochMillis(long[] ticks) {
+            final long[] dst = new long[ticks.length];
+            toEpochMillis(ticks, 0, dst, 0, ticks.length);
+            return dst;
+        }
+
+        public static long[] toEpochNanos(long[] ticks) {
+            final long[] dst = new long[ticks.length];
+            toEpochNanos(ticks, 0, dst, 0, ticks.length);
+            return dst;
+        }
+
+        public static long[] fromEpochMillis(long[] millis) {
+            final long[] dst = new long[millis.length];
+            fromEpochMillis(millis, 0, dst, 0, millis.length);
+            return dst;
+        }
+
+        public static long[] fromEpochNanos(long[] nanos) {
+            final long[] dst = new long[nanos.length];
+            fromEpochNanos(nanos, 0, dst, 0, nanos.length);
+            return dst;
+        }
+
+        public static Instant[] toInstants(long[] ticks) {
+            final Instant[] dst = new Instant[ticks.length];
+            toInstants(ticks, 0, dst, 0, ticks.length);
+            return dst;
+        }
+
+        public static void parallelToEpochMillis(long[] src, long[] dst, ForkJoinPool pool) {
+            parallelToEpochMillis(src, dst, pool, DEFAULT_PARALLEL_THRESHOLD);
+        }
+
+        public static void parallelToEpochMillis(long[] src, long[] dst, ForkJoinPool pool, int threshold) {
+            checkRange(src.length, 0, dst.length, 0, src.length);
+            parallel(pool, threshold, src.length, (f, t) -> toEpochMillis(src, f, dst, f, t - f));
+        }
+
+        public static void parallelToEpochNanos(long[] src, long[] dst, ForkJoinPool pool) {
+            parallelToEpochNanos(src, dst, pool, DEFAULT_PARALLEL_THRESHOLD);
+        }
+
+        public static void parallelToEpochNanos(long[] src, long[] dst, ForkJoinPool pool, int threshold) {
+            checkRange(src.length, 0, dst.length, 0, src.length);
+            parallel(pool, threshold, src.length, (f, t) -> toEpochNanos(src, f, dst, f, t - f));
+        }
+
+        public static void parallelFromEpochMillis(long[] src, long[] dst, ForkJoinPool pool) {
+            parallelFromEpochMillis(src, dst, pool, DEFAULT_PARALLEL_THRESHOLD);
+        }
+
+        public static void parallelFromEpochMillis(long[] src, long[] dst, ForkJoinPool pool, int threshold) {
+            checkRange(src.length, 0, dst.length, 0, src.length);
+            parallel(pool, threshold, src.length, (f, t) -> fromEpochMillis(src, f, dst, f, t - f));
+        }
+
+        public static void parallelFromEpochNanos(long[] src, long[] dst, ForkJoinPool pool) {
+            parallelFromEpochNanos(src, dst, pool, DEFAULT_PARALLEL_THRESHOLD);
+        }
+
+        public static void parallelFromEpochNanos(long[] src, long[] dst, ForkJoinPool pool, int threshold) {
+            checkRange(src.length, 0, dst.length, 0, src.length);
+            parallel(pool, threshold, src.length, (f, t) -> fromEpochNanos(src, f, dst, f, t - f));
+        }
+
+        public static void parallelToInstants(long[] src, Instant[] dst, ForkJoinPool pool) {
+            parallelToInstants(src, dst, pool, DEFAULT_PARALLEL_THRESHOLD);
+        }
+
+        public static void parallelToInstants(long[] src, Instant[] dst, ForkJoinPool pool, int threshold) {
+            checkRange(src.length, 0, dst.length, 0, src.length);
+            parallel(pool, threshold, src.length, (f, t) -> toInstants(src, f, dst, f, t - f));
+        }
+
+        static void checkRange(int srcLength, int srcPos, int dstLength, int dstPos, int length) {
+            if (length < 0 || srcPos < 0 || dstPos < 0 || srcPos + length > srcLength || dstPos + length > dstLength)
+                throw new IndexOutOfBoundsException("invalid conversion range");
+        }
+
+        /**
+         * @param threshold min length to run on the pool
+         */
+        static void parallel(ForkJoinPool pool, int threshold, int length, IntBinaryConsumer kernel) {
+            if (length < threshold || pool.getParallelism() <= 1) {
+                kernel.accept(0, length);
+                return;
+            }
+            final int chunk = Math.max(Math.max(1, threshold >>> 1), length / (pool.getParallelism() << 2));
+            pool.invoke(new BulkTask(kernel, 0, length, chunk));
+        }
+
+        @FunctionalInterface
+        interface IntBinaryConsumer {
+            void accept(int from, int to);
+        }
+
+        static final class BulkTask extends RecursiveAction {
+            private static final long serialVersionUID = -2474296426158113816L;
+            final IntBinaryConsumer kernel;
+            final int from;
+            final int to;
+            final int chunk;
+
+            BulkTask(IntBinaryConsumer kernel, int from, int to, int chunk) {
+                this.kernel = kernel;
+                this.from = from;
+                this.to = to;
+                this.chunk = chunk;
+            }
+
+            @Override
+            protected void compute() {
+                if (to - from <= chunk) {
+                    kernel.accept(from, to);
+                    return;
+                }
+                final int mid = (from + to) >>> 1;
+                invokeAll(new BulkTask(kernel, from, mid, chunk), new BulkTask(kernel, mid, to, chunk));
+            }
+        }
+        //endregion
+
         /**
          * create ticks from instant
          *
@@ -76,18 +389,19 @@ public interface Tick {
         }
 
         static long fromNowUTC() {
-            return from(Instant.now(), false);
+            return TimeSource.current().tick();
         }
 
+        /**
+         * any span of ticks, never overflows
+         */
         static Duration between(long firstUTC, long secondUTC) {
-            final Instant f = from(firstUTC).getKey();
-            final Instant s = from(secondUTC).getKey();
-            return Duration.between(f, s);
+            final long delta = (secondUTC & TicksMask) - (firstUTC & TicksMask);
+            return Duration.ofSeconds(delta / tickPerSec, (delta % tickPerSec) * 100);
         }
 
         static Duration betweenNow(Long firstUTC) {
-            final Instant f = from(firstUTC).getKey();
-            return Duration.between(f, Instant.now());
+            return between(firstUTC, fromNowUTC());
         }
 
         final long tick;
@@ -103,7 +417,7 @@ public interface Tick {
 
         @Override
         public Instant toInstant() {
-            return from(tick).getKey();
+            return toInstant(tick);
         }
     }
 
@@ -0,0 +1,274 @@
+package units.element;
+
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Compressed stream of ticks, Gorilla style delta of delta.<br>
+ * The first tick is written raw as 8 bytes big endian, the second as the delta from the first,
+ * each later one as the change of delta, deltas are zig-zag encoded into unsigned LEB128 varint.<br>
+ * Evenly spaced ticks cost 1 byte each, ticks close together cost 1 to 3 bytes.
+ * The stream has no header nor count, it ends with the data.
+ *
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-05-28
+ */
+public interface TickCodec {
+    /**
+     * max bytes of a varint of long
+     */
+    int MAX_VARINT_BYTES = 10;
+    int DEFAULT_BUFFER_SIZE = 8192;
+
+    /**
+     * @return max bytes to encode n ticks
+     */
+    static int maxEncodedBytes(int n) {
+        return n <= 0 ? 0 : 8 + (n - 1) * MAX_VARINT_BYTES;
+    }
+
+    static long zigZag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    static long unZigZag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    static void writeVarint(ByteBuffer buf, long v) {
+        while ((v & ~0x7FL) != 0) {
+            buf.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        buf.put((byte) v);
+    }
+
+    /**
+     * @throws IllegalArgumentException on malformed varint
+     */
+    static long readVarint(ByteBuffer buf) {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final byte b = buf.get();
+            v |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return v;
+        }
+        throw new IllegalArgumentException("malformed varint");
+    }
+
+    /**
+     * encode ticks into the buffer as one stream
+     *
+     * @return bytes written
+     */
+    static int encode(long[] ticks, int off, int len, ByteBuffer dst) {
+        final int begin = dst.position();
+        final Encoder encoder = new Encoder(dst, null);
+        for (int i = off, end = off + len; i < end; i++) encoder.write(ticks[i]);
+        return dst.position() - begin;
+    }
+
+    static byte[] encode(long[] ticks) {
+        final ByteBuffer buf = ByteBuffer.allocate(maxEncodedBytes(ticks.length));
+        encode(ticks, 0, ticks.length, buf);
+        final byte[] out = new byte[buf.position()];
+        buf.flip();
+        buf.get(out);
+        return out;
+    }
+
+    /**
+     * decode at most len ticks from a whole stream in the buffer
+     *
+     * @return ticks decoded
+     */
+    static int decode(ByteBuffer src, long[] dst, int off, int len) {
+        final Decoder decoder = new Decoder(src, null);
+        int n = 0;
+        while (n < len && decoder.hasNext()) dst[off + n++] = decoder.nextLong();
+        return n;
+    }
+
+    /**
+     * encoder into a buffer, throws {@link java.nio.BufferOverflowException} when full
+     */
+    static Encoder encoder(ByteBuffer dst) {
+        return new Encoder(dst, null);
+    }
+
+    /**
+     * buffered encoder into a channel, call {@link Encoder#flush()} or {@link Encoder#close()} at last.<br>
+     * write errors of the channel are thrown as {@link UncheckedIOException}.
+     */
+    static Encoder encoder(WritableByteChannel channel) {
+        return new Encoder(ByteBuffer.allocate(DEFAULT_BUFFER_SIZE), channel);
+    }
+
+    /**
+     * decoder of the remaining bytes of a buffer
+     */
+    static Decoder decoder(ByteBuffer src) {
+        return new Decoder(src, null);
+    }
+
+    /**
+     * buffered decoder of a channel, read until end of stream
+     */
+    static Decoder decoder(ReadableByteChannel channel) {
+        final ByteBuffer buf = ByteBuffer.allocate(DEFAULT_BUFFER_SIZE);
+        buf.flip();
+        return new Decoder(buf, channel);
+    }
+
+    final class Encoder implements Flushable, Closeable {
+        final ByteBuffer buf;
+        final WritableByteChannel channel;
+        long prev;
+        long delta;
+        long count;
+
+        Encoder(ByteBuffer buf, WritableByteChannel channel) {
+            this.buf = buf;
+            this.channel = channel;
+        }
+
+        public void write(long tick) {
+            if (channel != null && buf.remaining() < 8 + MAX_VARINT_BYTES) drain();
+            if (count == 0) {
+                for (int shift = 56; shift >= 0; shift -= 8) buf.put((byte) (tick >>> shift));
+            } else {
+                final long d = tick - prev;
+                writeVarint(buf, zigZag(d - delta));
+                delta = d;
+            }
+            prev = tick;
+            count++;
+        }
+
+        public void write(long[] ticks, int off, int len) {
+            for (int i = off, end = off + len; i < end; i++) write(ticks[i]);
+        }
+
+        public void write(Tick tick) {
+            write(tick.toLong());
+        }
+
+        /**
+         * @return ticks written
+         */
+        public long count() {
+            return count;
+        }
+
+        void drain() {
+            buf.flip();
+            try {
+                while (buf.hasRemaining()) channel.write(buf);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                buf.clear();
+            }
+        }
+
+        /**
+         * write buffered bytes to the channel, no op for buffer encoder
+         */
+        @Override
+        public void flush() {
+            if (channel != null) drain();
+        }
+
+        /**
+         * flush, the channel is not closed
+         */
+        @Override
+        public void close() {
+            flush();
+        }
+    }
+
+    /**
+     * pull iterator of ticks, no allocation per value.<br>
+     * read errors of the channel are thrown as {@link UncheckedIOException},
+     * a truncated stream as one caused by {@link EOFException}.
+     */
+    final class Decoder implements PrimitiveIterator.OfLong {
+        final ByteBuffer buf;
+        final ReadableByteChannel channel;
+        boolean eof;
+        long prev;
+        long delta;
+        long count;
+
+        Decoder(ByteBuffer buf, ReadableByteChannel channel) {
+            this.buf = buf;
+            this.channel = channel;
+            this.eof = channel == null;
+        }
+
+        /**
+         * keep at least the need bytes buffered unless end of stream
+         */
+        void fill(int need) {
+            if (eof || buf.remaining() >= need) return;
+            buf.compact();
+            try {
+                while (buf.position() < need) {
+                    if (channel.read(buf) < 0) {
+                        eof = true;
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                buf.flip();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            fill(1);
+            return buf.hasRemaining();
+        }
+
+        @Override
+        public long nextLong() {
+            fill(count == 0 ? 8 : MAX_VARINT_BYTES);
+            if (!buf.hasRemaining()) throw new NoSuchElementException();
+            try {
+                if (count == 0) {
+                    long v = 0;
+                    for (int i = 0; i < 8; i++) v = (v << 8) | (buf.get() & 0xFF);
+                    prev = v;
+                } else {
+                    delta += unZigZag(readVarint(buf));
+                    prev += delta;
+                }
+            } catch (BufferUnderflowException e) {
+                throw new UncheckedIOException(new EOFException("truncated tick stream"));
+            }
+            count++;
+            return prev;
+        }
+
+        /**
+         * @return ticks read
+         */
+        public long count() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,406 @@
+package units.element;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+import static units.element.Tick.Ticks.*;
+
+/**
+ * ISO-8601 text of ticks without {@link java.time.format.DateTimeFormatter}.<br>
+ * Format is always UTC with 7 fraction digits, as {@code 2021-05-28T09:30:15.1234567Z}, 100 nanos precision.
+ * The date part of the last formatted day is cached in an immutable holder,
+ * so timestamps of the same day only render the time part.<br>
+ * Parser accepts {@code yyyy-MM-ddTHH:mm:ss[.f{1,9}](Z|+HH:mm|+HHmm|+HH)}, fraction beyond 7 digits is truncated,
+ * result is ticks of UTC kind. Neither side allocates except the String of {@link #format(long)}.
+ *
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-05-29
+ */
+public interface TickFormat {
+    /**
+     * length of formatted text
+     */
+    int LENGTH = 28;
+    /**
+     * returned by try parse on invalid text, kind 3 is never produced by C#
+     */
+    long INVALID = -1L;
+
+    static String format(long tick) {
+        final char[] buf = new char[LENGTH];
+        format(tick, buf, 0);
+        return new String(buf);
+    }
+
+    /**
+     * @return offset after the text
+     */
+    static int format(long tick, char[] dst, int offset) {
+        final long ticks = tick & TicksMask;
+        final char[] date = Days.of(ticks / TicksPerDay).text;
+        System.arraycopy(date, 0, dst, offset, Days.DATE_LENGTH);
+        final long t = ticks % TicksPerDay;
+        int fraction = (int) (t % tickPerSec);
+        final int sec = (int) (t / tickPerSec);
+        int p = offset + Days.DATE_LENGTH;
+        p = two(dst, p, sec / 3600);
+        dst[p++] = ':';
+        p = two(dst, p, sec / 60 % 60);
+        dst[p++] = ':';
+        p = two(dst, p, sec % 60);
+        dst[p++] = '.';
+        for (int i = p + 6; i >= p; i--) {
+            dst[i] = (char) ('0' + fraction % 10);
+            fraction /= 10;
+        }
+        p += 7;
+        dst[p++] = 'Z';
+        return p;
+    }
+
+    static StringBuilder format(long tick, StringBuilder dst) {
+        final long ticks = tick & TicksMask;
+        dst.append(Days.of(ticks / TicksPerDay).text, 0, Days.DATE_LENGTH);
+        final long t = ticks % TicksPerDay;
+        final int fraction = (int) (t % tickPerSec);
+        final int sec = (int) (t / tickPerSec);
+        two(dst, sec / 3600).append(':');
+        two(dst, sec / 60 % 60).append(':');
+        two(dst, sec % 60).append('.');
+        for (int div = 1_000_000; div > 0; div /= 10) dst.append((char) ('0' + fraction / div % 10));
+        return dst.append('Z');
+    }
+
+    /**
+     * @return offset after the text
+     */
+    static int formatAscii(long tick, byte[] dst, int offset) {
+        final long ticks = tick & TicksMask;
+        final char[] date = Days.of(ticks / TicksPerDay).text;
+        for (int i = 0; i < Days.DATE_LENGTH; i++) dst[offset + i] = (byte) date[i];
+        final long t = ticks % TicksPerDay;
+        int fraction = (int) (t % tickPerSec);
+        final int sec = (int) (t / tickPerSec);
+        int p = offset + Days.DATE_LENGTH;
+        p = two(dst, p, sec / 3600);
+        dst[p++] = ':';
+        p = two(dst, p, sec / 60 % 60);
+        dst[p++] = ':';
+        p = two(dst, p, sec % 60);
+        dst[p++] = '.';
+        for (int i = p + 6; i >= p; i--) {
+            dst[i] = (byte) ('0' + fraction % 10);
+            fraction /= 10;
+        }
+        p += 7;
+        dst[p++] = 'Z';
+        return p;
+    }
+
+    /**
+     * write ASCII text at buffer position
+     */
+    static ByteBuffer format(long tick, ByteBuffer dst) {
+        if (dst.remaining() < LENGTH) throw new BufferOverflowException();
+        final int at = dst.position();
+        if (dst.hasArray()) {
+            formatAscii(tick, dst.array(), dst.arrayOffset() + at);
+            dst.position(at + LENGTH);
+            return dst;
+        }
+        // direct buffer, absolute puts
+        final long ticks = tick & TicksMask;
+        final char[] date = Days.of(ticks / TicksPerDay).text;
+        for (int i = 0; i < Days.DATE_LENGTH; i++) dst.put(at + i, (byte) date[i]);
+        final long t = ticks % TicksPerDay;
+        int fraction = (int) (t % tickPerSec);
+        final int sec = (int) (t / tickPerSec);
+        int p = at + Days.DATE_LENGTH;
+        p = two(dst, p, sec / 3600);
+        dst.put(p++, (byte) ':');
+        p = two(dst, p, sec / 60 % 60);
+        dst.put(p++, (byte) ':');
+        p = two(dst, p, sec % 60);
+        dst.put(p++, (byte) '.');
+        for (int i = p + 6; i >= p; i--) {
+            dst.put(i, (byte) ('0' + fraction % 10));
+            fraction /= 10;
+        }
+        p += 7;
+        dst.put(p++, (byte) 'Z');
+        dst.position(p);
+        return dst;
+    }
+
+    static int two(char[] dst, int p, int v) {
+        dst[p] = (char) ('0' + v / 10);
+        dst[p + 1] = (char) ('0' + v % 10);
+        return p + 2;
+    }
+
+    static StringBuilder two(StringBuilder dst, int v) {
+        return dst.append((char) ('0' + v / 10)).append((char) ('0' + v % 10));
+    }
+
+    static int two(byte[] dst, int p, int v) {
+        dst[p] = (byte) ('0' + v / 10);
+        dst[p + 1] = (byte) ('0' + v % 10);
+        return p + 2;
+    }
+
+    static int two(ByteBuffer dst, int p, int v) {
+        dst.put(p, (byte) ('0' + v / 10));
+        dst.put(p + 1, (byte) ('0' + v % 10));
+        return p + 2;
+    }
+
+    //region Parse
+
+    static long tryParse(CharSequence src) {
+        return src == null ? INVALID : tryParse(src, 0, src.length());
+    }
+
+    /**
+     * @return ticks of UTC kind, {@link #INVALID} if not a valid text
+     */
+    static long tryParse(CharSequence src, int offset, int length) {
+        if (src == null || offset < 0 || length < 20 || offset + length > src.length()) return INVALID;
+        final int end = offset + length;
+        int p = offset;
+        final int year = digits(src, p, 4);
+        final int month = digits(src, p + 5, 2);
+        final int day = digits(src, p + 8, 2);
+        final int hour = digits(src, p + 11, 2);
+        final int minute = digits(src, p + 14, 2);
+        final int second = digits(src, p + 17, 2);
+        if (src.charAt(p + 4) != '-' || src.charAt(p + 7) != '-' || (src.charAt(p + 10) | 0x20) != 't'
+            || src.charAt(p + 13) != ':' || src.charAt(p + 16) != ':') return INVALID;
+        p += 19;
+        int fraction = 0;
+        if (src.charAt(p) == '.') {
+            p++;
+            int n = 0;
+            while (p < end && n < 9) {
+                final int d = src.charAt(p) - '0';
+                if (d < 0 || d > 9) break;
+                if (n < 7) fraction = fraction * 10 + d;
+                p++;
+                n++;
+            }
+            if (n == 0) return INVALID;
+            for (; n < 7; n++) fraction *= 10;
+        }
+        if (p >= end) return INVALID;
+        final char zone = src.charAt(p++);
+        int offsetSeconds = 0;
+        if ((zone | 0x20) == 'z') {
+            if (p != end) return INVALID;
+        } else if (zone == '+' || zone == '-') {
+            final int rest = end - p;
+            final int oh, om;
+            if (rest == 2) {
+                oh = digits(src, p, 2);
+                om = 0;
+            } else if (rest == 4) {
+                oh = digits(src, p, 2);
+                om = digits(src, p + 2, 2);
+            } else if (rest == 5 && src.charAt(p + 2) == ':') {
+                oh = digits(src, p, 2);
+                om = digits(src, p + 3, 2);
+            } else return INVALID;
+            if (oh < 0 || om < 0 || oh > 18 || om > 59) return INVALID;
+            offsetSeconds = (oh * 3600 + om * 60) * (zone == '-' ? -1 : 1);
+        } else return INVALID;
+        return ticksOf(year, month, day, hour, minute, second, fraction, offsetSeconds);
+    }
+
+    static long tryParseAscii(byte[] src, int offset, int length) {
+        if (src == null || offset < 0 || length < 20 || offset + length > src.length) return INVALID;
+        final int end = offset + length;
+        int p = offset;
+        final int year = digits(src, p, 4);
+        final int month = digits(src, p + 5, 2);
+        final int day = digits(src, p + 8, 2);
+        final int hour = digits(src, p + 11, 2);
+        final int minute = digits(src, p + 14, 2);
+        final int second = digits(src, p + 17, 2);
+        if (src[p + 4] != '-' || src[p + 7] != '-' || (src[p + 10] | 0x20) != 't'
+            || src[p + 13] != ':' || src[p + 16] != ':') return INVALID;
+        p += 19;
+        int fraction = 0;
+        if (src[p] == '.') {
+            p++;
+            int n = 0;
+            while (p < end && n < 9) {
+                final int d = src[p] - '0';
+                if (d < 0 || d > 9) break;
+                if (n < 7) fraction = fraction * 10 + d;
+                p++;
+                n++;
+            }
+            if (n == 0) return INVALID;
+            for (; n < 7; n++) fraction *= 10;
+        }
+        if (p >= end) return INVALID;
+        final byte zone = src[p++];
+        int offsetSeconds = 0;
+        if ((zone | 0x20) == 'z') {
+            if (p != end) return INVALID;
+        } else if (zone == '+' || zone == '-') {
+            final int rest = end - p;
+            final int oh, om;
+            if (rest == 2) {
+                oh = digits(src, p, 2);
+                om = 0;
+            } else if (rest == 4) {
+                oh = digits(src, p, 2);
+                om = digits(src, p + 2, 2);
+            } else if (rest == 5 && src[p + 2] == ':') {
+                oh = digits(src, p, 2);
+                om = digits(src, p + 3, 2);
+            } else return INVALID;
+            if (oh < 0 || om < 0 || oh > 18 || om > 59) return INVALID;
+            offsetSeconds = (oh * 3600 + om * 60) * (zone == '-' ? -1 : 1);
+        } else return INVALID;
+        return ticksOf(year, month, day, hour, minute, second, fraction, offsetSeconds);
+    }
+
+    /**
+     * @throws IllegalArgumentException if not a valid text
+     */
+    static long parse(CharSequence src) {
+        return checked(tryParse(src));
+    }
+
+    /**
+     * @throws IllegalArgumentException if not a valid text
+     */
+    static long parse(CharSequence src, int offset, int length) {
+        return checked(tryParse(src, offset, length));
+    }
+
+    /**
+     * @throws IllegalArgumentException if not a valid text
+     */
+    static long parseAscii(byte[] src, int offset, int length) {
+        return checked(tryParseAscii(src, offset, length));
+    }
+
+    static long checked(long tick) {
+        if (tick == INVALID) throw new IllegalArgumentException("not a valid ISO-8601 time");
+        return tick;
+    }
+
+    /**
+     * @return value of n digits, negative if any is not a digit
+     */
+    static int digits(CharSequence src, int p, int n) {
+        int v = 0;
+        int bad = 0;
+        for (int i = 0; i < n; i++) {
+            final int d = src.charAt(p + i) - '0';
+            bad |= d | (9 - d);
+            v = v * 10 + d;
+        }
+        return bad < 0 ? -1 : v;
+    }
+
+    static int digits(byte[] src, int p, int n) {
+        int v = 0;
+        int bad = 0;
+        for (int i = 0; i < n; i++) {
+            final int d = src[p + i] - '0';
+            bad |= d | (9 - d);
+            v = v * 10 + d;
+        }
+        return bad < 0 ? -1 : v;
+    }
+
+    static long ticksOf(int year, int month, int day, int hour, int minute, int second, int fraction,
+                        int offsetSeconds) {
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > Days.lengthOf(year, month)
+            || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) return INVALID;
+        final long seconds = Days.fromCivil(year, month, day) * 86400L + hour * 3600 + minute * 60 + second
+            - offsetSeconds;
+        if (seconds < 0) return INVALID;
+        return (seconds * tickPerSec + fraction) | KindUtc;
+    }
+    //endregion
+
+    /**
+     * date text of one day, from 0001-01-01
+     */
+    final class Days {
+        static final int DATE_LENGTH = 11;
+        static volatile Days last = new Days(0);
+
+        final long day;
+        /**
+         * yyyy-MM-ddT
+         */
+        final char[] text;
+
+        private Days(long day) {
+            this.day = day;
+            final long civil = toCivil(day);
+            final int year = (int) (civil >>> 16);
+            final int month = (int) (civil >>> 8) & 0xFF;
+            final int dom = (int) civil & 0xFF;
+            final char[] t = new char[DATE_LENGTH];
+            t[0] = (char) ('0' + year / 1000 % 10);
+            t[1] = (char) ('0' + year / 100 % 10);
+            t[2] = (char) ('0' + year / 10 % 10);
+            t[3] = (char) ('0' + year % 10);
+            t[4] = '-';
+            two(t, 5, month);
+            t[7] = '-';
+            two(t, 8, dom);
+            t[10] = 'T';
+            this.text = t;
+        }
+
+        static Days of(long day) {
+            final Days cached = last;
+            if (cached.day == day) return cached;
+            final Days created = new Days(day);
+            last = created;
+            return created;
+        }
+
+        /**
+         * @param day days from 0001-01-01
+         * @return year << 16 | month << 8 | day of month
+         */
+        static long toCivil(long day) {
+            // shift to 0000-03-01 so leap day is the last of a year
+            final long z = day + 306;
+            final long era = z / 146097;
+            final long doe = z - era * 146097;
+            final long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+            final long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+            final long mp = (5 * doy + 2) / 153;
+            final long d = doy - (153 * mp + 2) / 5 + 1;
+            final long m = mp < 10 ? mp + 3 : mp - 9;
+            final long y = yoe + era * 400 + (m <= 2 ? 1 : 0);
+            return y << 16 | m << 8 | d;
+        }
+
+        /**
+         * @return days from 0001-01-01
+         */
+        static long fromCivil(int year, int month, int day) {
+            final long y = month <= 2 ? year - 1 : year;
+            final long era = y / 400;
+            final long yoe = y - era * 400;
+            final long doy = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+            final long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+            return era * 146097 + doe - 306;
+        }
+
+        static int lengthOf(int year, int month) {
+            if (month == 2) return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package units.element;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Timer of deadlines in ticks on a hierarchical hashed timing wheel.<br>
+ * Four levels of 64 slots, level 0 slot spans one resolution, deadlines beyond the top level
+ * wait in its last slot and are placed again on cascade.<br>
+ * Schedule and cancel are lock free pushes to inboxes drained by the single driver thread,
+ * the driver keeps slots as doubly linked lists so both are O(1).
+ * Tasks run on the driver thread, so they should be short, such as completing a future.
+ *
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-05-29
+ */
+public interface TickTimer extends Closeable {
+    /**
+     * @param deadline C# binary ticks, kind flag is ignored
+     */
+    Timeout schedule(long deadline, Runnable task);
+
+    default Timeout schedule(Tick deadline, Runnable task) {
+        return schedule(deadline.toLong(), task);
+    }
+
+    default Timeout schedule(long delay, TimeUnit unit, Runnable task) {
+        return schedule(now() + unit.toNanos(delay) / 100, task);
+    }
+
+    default Timeout schedule(Duration delay, Runnable task) {
+        return schedule(delay.toNanos(), TimeUnit.NANOSECONDS, task);
+    }
+
+    /**
+     * on expire the consumer receives a {@link Errors.TimeoutError} created by {@link Errors#timeout}
+     */
+    default Timeout timeout(long deadline, Consumer<? super Errors.TimeoutError> onTimeout) {
+        return schedule(deadline, () -> onTimeout.accept(Errors.timeout("deadline {} exceeded",
+            TickFormat.format(deadline))));
+    }
+
+    /**
+     * complete the future with {@link Errors.TimeoutError} at deadline, the timeout is cancelled once
+     * the future completes otherwise.
+     *
+     * @return the same future
+     */
+    default <T> CompletableFuture<T> timeout(long deadline, CompletableFuture<T> future) {
+        if (future.isDone()) return future;
+        final Timeout timeout = timeout(deadline, future::completeExceptionally);
+        future.whenComplete((v, e) -> timeout.cancel());
+        return future;
+    }
+
+    /**
+     * @return current ticks of the time source of this timer
+     */
+    long now();
+
+    /**
+     * @return scheduled tasks neither run nor cancelled
+     */
+    int pending();
+
+    /**
+     * stop the driver, pending tasks never run
+     */
+    @Override
+    void close();
+
+    /**
+     * @param resolution span of a level 0 slot, deadlines are fired at most this late
+     */
+    static TickTimer create(long resolution, TimeUnit unit) {
+        return new WheelTimer(TimeSource.current(), unit.toNanos(resolution) / 100, "tick-timer");
+    }
+
+    static TickTimer create(long resolution, TimeUnit unit, TimeSource source) {
+        return new WheelTimer(source, unit.toNanos(resolution) / 100, "tick-timer");
+    }
+
+    /**
+     * shared timer of 1 millisecond resolution, started on first use.
+     */
+    static TickTimer shared() {
+        return WheelTimer.Shared.INSTANCE;
+    }
+
+    interface Timeout {
+        /**
+         * @return deadline ticks without kind flag
+         */
+        long deadline();
+
+        /**
+         * @return true if cancelled by this call, false if already run or cancelled
+         */
+        boolean cancel();
+
+        boolean isCancelled();
+
+        boolean isExpired();
+    }
+
+    final class WheelTimer implements TickTimer {
+        static final int LEVELS = 4;
+        static final int BITS = 6;
+        static final int SLOTS = 1 << BITS;
+        static final int MASK = SLOTS - 1;
+
+        static final int PENDING = 0;
+        static final int CANCELLED = 1;
+        static final int EXPIRED = 2;
+
+        static final class Shared {
+            static final WheelTimer INSTANCE = new WheelTimer(TimeSource.system(),
+                TimeUnit.MILLISECONDS.toNanos(1) / 100, "shared-tick-timer");
+        }
+
+        static final class Entry implements Timeout {
+            static final AtomicIntegerFieldUpdater<Entry> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Entry.class, "state");
+            final WheelTimer timer;
+            final long deadline;
+            final long unit;
+            final Runnable task;
+            volatile int state;
+            /**
+             * links of inbox and cancels, set before publish
+             */
+            Entry nextInbox;
+            Entry nextCancel;
+            //region driver only
+            Entry prev;
+            Entry next;
+            int slot = -1;
+            //endregion
+
+            Entry(WheelTimer timer, long deadline, long unit, Runnable task) {
+                this.timer = timer;
+                this.deadline = deadline;
+                this.unit = unit;
+                this.task = task;
+            }
+
+            @Override
+            public long deadline() {
+                return deadline;
+            }
+
+            @Override
+            public boolean cancel() {
+                if (!STATE.compareAndSet(this, PENDING, CANCELLED)) return false;
+                timer.pending.decrementAndGet();
+                timer.pushCancel(this);
+                return true;
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return state == CANCELLED;
+            }
+
+            @Override
+            public boolean isExpired() {
+                return state == EXPIRED;
+            }
+        }
+
+        final TimeSource source;
+        final long resolution;
+        /**
+         * list heads of slots, level major
+         */
+        final Entry[] heads = new Entry[LEVELS * SLOTS];
+        final AtomicReference<Entry> inbox = new AtomicReference<>();
+        final AtomicReference<Entry> cancels = new AtomicReference<>();
+        final AtomicInteger pending = new AtomicInteger();
+        final Thread driver;
+        volatile boolean running = true;
+        /**
+         * driver parked without deadline as nothing pending
+         */
+        volatile boolean idle;
+        /**
+         * current unit of the driver
+         */
+        long current;
+
+        WheelTimer(TimeSource source, long resolutionTicks, String name) {
+            if (resolutionTicks < 1) throw new IllegalArgumentException("resolution should not less than one tick");
+            this.source = source;
+            this.resolution = resolutionTicks;
+            this.current = unitOf(source.tick());
+            this.driver = new Thread(this::drive, name);
+            this.driver.setDaemon(true);
+            this.driver.start();
+        }
+
+        long unitOf(long tick) {
+            return (tick & Tick.Ticks.TicksMask) / resolution;
+        }
+
+        @Override
+        public long now() {
+            return source.tick();
+        }
+
+        @Override
+        public int pending() {
+            return pending.get();
+        }
+
+        @Override
+        public Timeout schedule(long deadline, Runnable task) {
+            final long ticks = deadline & Tick.Ticks.TicksMask;
+            // round up, never fire before the deadline
+            final Entry entry = new Entry(this, ticks, (ticks + resolution - 1) / resolution, task);
+            if (!running) {
+                entry.state = CANCELLED;
+                return entry;
+            }
+            pending.incrementAndGet();
+            Entry head;
+            do {
+                head = inbox.get();
+                entry.nextInbox = head;
+            } while (!inbox.compareAndSet(head, entry));
+            if (idle) LockSupport.unpark(driver);
+            return entry;
+        }
+
+        void pushCancel(Entry entry) {
+            Entry head;
+            do {
+                head = cancels.get();
+                entry.nextCancel = head;
+            } while (!cancels.compareAndSet(head, entry));
+        }
+
+        @Override
+        public void close() {
+            running = false;
+            LockSupport.unpark(driver);
+        }
+
+        //region driver
+
+        void drive() {
+            while (running) {
+                drain();
+                if (pending.get() == 0) {
+                    // nothing to fire, skip the elapsed units and wait for a schedule
+                    current = Math.max(current, unitOf(source.tick()));
+                    idle = true;
+                    if (inbox.get() == null && running) LockSupport.park(this);
+                    idle = false;
+                    continue;
+                }
+                final long target = unitOf(source.tick());
+                while (current < target && running) {
+                    current++;
+                    step();
+                }
+                LockSupport.parkNanos(this, resolution * 100);
+            }
+            pending.set(0);
+        }
+
+        void drain() {
+            Entry e = inbox.getAndSet(null);
+            while (e != null) {
+                final Entry next = e.nextInbox;
+                e.nextInbox = null;
+                if (e.state == PENDING) place(e);
+                e = next;
+            }
+            Entry c = cancels.getAndSet(null);
+            while (c != null) {
+                final Entry next = c.nextCancel;
+                c.nextCancel = null;
+                unlink(c);
+                c = next;
+            }
+        }
+
+        void place(Entry e) {
+            final long deadline = e.unit;
+            if (deadline <= current) {
+                expire(e);
+                return;
+            }
+            int level = 0;
+            final long index;
+            while (level < LEVELS && (deadline >>> (BITS * level)) - (current >>> (BITS * level)) >= SLOTS) level++;
+            if (level == LEVELS) {
+                // beyond the wheel, wait in the last slot of top level
+                level = LEVELS - 1;
+                index = (current >>> (BITS * level)) - 1;
+            } else {
+                index = deadline >>> (BITS * level);
+            }
+            final int slot = level * SLOTS + (int) (index & MASK);
+            e.slot = slot;
+            e.prev = null;
+            e.next = heads[slot];
+            if (e.next != null) e.next.prev = e;
+            heads[slot] = e;
+        }
+
+        void unlink(Entry e) {
+            if (e.slot < 0) return;
+            if (e.prev != null) e.prev.next = e.next;
+            else heads[e.slot] = e.next;
+            if (e.next != null) e.next.prev = e.prev;
+            e.prev = e.next = null;
+            e.slot = -1;
+        }
+
+        void step() {
+            // cascade higher levels first, so entries due now reach level 0 before it fires
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((current & ((1L << (BITS * level)) - 1)) != 0) continue;
+                Entry e = take(level * SLOTS + (int) ((current >>> (BITS * level)) & MASK));
+                while (e != null) {
+                    final Entry next = e.next;
+                    e.next = null;
+                    place(e);
+                    e = next;
+                }
+            }
+            Entry e = take((int) (current & MASK));
+            while (e != null) {
+                final Entry next = e.next;
+                e.next = null;
+                expire(e);
+                e = next;
+            }
+        }
+
+        /**
+         * detach the whole list of a slot
+         */
+        Entry take(int slot) {
+            final Entry head = heads[slot];
+            heads[slot] = null;
+            for (Entry e = head; e != null; e = e.next) {
+                e.prev = null;
+                e.slot = -1;
+            }
+            return head;
+        }
+
+        void expire(Entry e) {
+            if (!Entry.STATE.compareAndSet(e, PENDING, EXPIRED)) return;
+            pending.decrementAndGet();
+            try {
+                e.task.run();
+            } catch (Throwable ex) {
+                final Thread t = Thread.currentThread();
+                t.getUncaughtExceptionHandler().uncaughtException(t, ex);
+            }
+        }
+        //endregion
+    }
+}
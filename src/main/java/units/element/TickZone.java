@@ -0,0 +1,214 @@
+package units.element;
+
+import java.time.*;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static units.element.Tick.Ticks.*;
+
+/**
+ * Zone offset conversion of Local kind ticks.<br>
+ * As C# DateTime.ToBinary(), a Local kind binary holds UTC ticks with the local flag,
+ * so {@link Tick#toInstant()} is already right, this converts between binary and wall clock ticks
+ * (the C# DateTime.Ticks of Local kind).<br>
+ * Offsets come from transitions precomputed into primitive arrays over a year range,
+ * each conversion is a binary search, out of range falls back to {@link ZoneRules}.
+ *
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-05-28
+ */
+public interface TickZone {
+    int DEFAULT_FROM_YEAR = 1900;
+    int DEFAULT_TO_YEAR = 2100;
+
+    ZoneId getZone();
+
+    /**
+     * @param utcTicks ticks of UTC, without kind flag
+     * @return offset in ticks
+     */
+    long offsetOfUtc(long utcTicks);
+
+    /**
+     * @param localTicks wall clock ticks, without kind flag
+     * @return offset in ticks, the earlier offset in overlaps and the offset before a gap
+     */
+    long offsetOfLocal(long localTicks);
+
+    /**
+     * @param binary ticks from C# DateTime.ToBinary()
+     * @return wall clock ticks of this zone, ticks of unspecified kind are returned as is
+     */
+    default long toLocalTicks(long binary) {
+        final long kind = binary & ~TicksMask;
+        if (kind == 0) return binary;
+        final long utc = utcOf(binary);
+        return utc + offsetOfUtc(utc);
+    }
+
+    /**
+     * @param localTicks wall clock ticks of this zone
+     * @return C# binary of Local kind
+     */
+    default long toBinary(long localTicks) {
+        long utc = localTicks - offsetOfLocal(localTicks);
+        if (utc < 0) utc += TicksCeiling;
+        return utc | KindLocal;
+    }
+
+    default LocalDateTime toLocalDateTime(long binary) {
+        final long local = toLocalTicks(binary) & TicksMask;
+        return LocalDateTime.ofEpochSecond(local / tickPerSec + base, (int) (local % tickPerSec) * 100, ZoneOffset.UTC);
+    }
+
+    default long toBinary(LocalDateTime dateTime) {
+        return toBinary((dateTime.toEpochSecond(ZoneOffset.UTC) - base) * tickPerSec + dateTime.getNano() / 100);
+    }
+
+    /**
+     * UTC ticks of a binary, unwrap negative UTC of Local kind as C# DateTime.FromBinary()
+     */
+    static long utcOf(long binary) {
+        final long ticks = binary & TicksMask;
+        return Tick.Ticks.isLocal(binary) && ticks > TicksCeiling - TicksPerDay ? ticks - TicksCeiling : ticks;
+    }
+
+    static TickZone of(ZoneId zone) {
+        return new CachedZone(zone, DEFAULT_FROM_YEAR, DEFAULT_TO_YEAR);
+    }
+
+    /**
+     * @param fromYear first year cached
+     * @param toYear   last year cached, inclusive
+     */
+    static TickZone of(ZoneId zone, int fromYear, int toYear) {
+        return new CachedZone(zone, fromYear, toYear);
+    }
+
+    /**
+     * @return zone used by default, system default zone if never changed
+     */
+    static TickZone current() {
+        TickZone zone = Zones.CURRENT.get();
+        if (zone == null) {
+            Zones.CURRENT.compareAndSet(null, of(ZoneId.systemDefault()));
+            zone = Zones.CURRENT.get();
+        }
+        return zone;
+    }
+
+    static void use(ZoneId zone) {
+        Zones.CURRENT.set(of(Objects.requireNonNull(zone, "zone should not be null")));
+    }
+
+    final class Zones {
+        static final AtomicReference<TickZone> CURRENT = new AtomicReference<>();
+
+        private Zones() {
+        }
+    }
+
+    final class CachedZone implements TickZone {
+        final ZoneId zone;
+        final ZoneRules rules;
+        final long startUtc;
+        final long endUtc;
+        /**
+         * transition ticks of UTC
+         */
+        final long[] utcTransitions;
+        /**
+         * wall clock ticks from which the offset after applies, transition plus the larger offset
+         */
+        final long[] localTransitions;
+        /**
+         * offsets[i] applies before transition i, the last after all
+         */
+        final long[] offsets;
+
+        CachedZone(ZoneId zone, int fromYear, int toYear) {
+            if (fromYear > toYear) throw new IllegalArgumentException("from year should not after to year");
+            this.zone = zone;
+            this.rules = zone.getRules();
+            final Instant start = LocalDate.of(fromYear, 1, 1).atStartOfDay().toInstant(ZoneOffset.UTC);
+            final Instant end = LocalDate.of(toYear + 1, 1, 1).atStartOfDay().toInstant(ZoneOffset.UTC);
+            this.startUtc = ticksOf(start);
+            this.endUtc = ticksOf(end);
+            long[] utc = new long[16];
+            long[] local = new long[16];
+            long[] offset = new long[17];
+            offset[0] = offsetTicks(rules.getOffset(start));
+            int n = 0;
+            ZoneOffsetTransition t = rules.nextTransition(start);
+            while (t != null && t.getInstant().isBefore(end)) {
+                if (n == utc.length) {
+                    utc = Arrays.copyOf(utc, n << 1);
+                    local = Arrays.copyOf(local, n << 1);
+                    offset = Arrays.copyOf(offset, (n << 1) + 1);
+                }
+                final long before = offsetTicks(t.getOffsetBefore());
+                final long after = offsetTicks(t.getOffsetAfter());
+                utc[n] = ticksOf(t.getInstant());
+                local[n] = utc[n] + Math.max(before, after);
+                offset[n + 1] = after;
+                n++;
+                t = rules.nextTransition(t.getInstant());
+            }
+            this.utcTransitions = Arrays.copyOf(utc, n);
+            this.localTransitions = Arrays.copyOf(local, n);
+            this.offsets = Arrays.copyOf(offset, n + 1);
+        }
+
+        static long ticksOf(Instant instant) {
+            return (instant.getEpochSecond() - base) * tickPerSec + instant.getNano() / 100;
+        }
+
+        static long offsetTicks(ZoneOffset offset) {
+            return (long) offset.getTotalSeconds() * tickPerSec;
+        }
+
+        /**
+         * @return count of elements not greater than value
+         */
+        static int upperBound(long[] sorted, long value) {
+            int lo = 0, hi = sorted.length;
+            while (lo < hi) {
+                final int mid = (lo + hi) >>> 1;
+                if (sorted[mid] <= value) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public long offsetOfUtc(long utcTicks) {
+            if (utcTicks >= startUtc && utcTicks < endUtc) return offsets[upperBound(utcTransitions, utcTicks)];
+            return offsetTicks(rules.getOffset(Instant.ofEpochSecond(
+                Math.floorDiv(utcTicks, tickPerSec) + base, Math.floorMod(utcTicks, tickPerSec) * 100)));
+        }
+
+        @Override
+        public long offsetOfLocal(long localTicks) {
+            if (localTicks >= startUtc + offsets[0] && localTicks < endUtc + offsets[offsets.length - 1])
+                return offsets[upperBound(localTransitions, localTicks)];
+            // transitions fall on whole seconds, the fraction never changes the offset
+            final LocalDateTime dateTime = LocalDateTime.ofEpochSecond(
+                Math.floorDiv(localTicks, tickPerSec) + base, 0, ZoneOffset.UTC);
+            return offsetTicks(rules.getOffset(dateTime));
+        }
+
+        @Override
+        public String toString() {
+            return "TickZone{" + zone + ", transitions=" + utcTransitions.length + '}';
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package units.element;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Source of current time in ticks, used by {@link Tick#now()} and {@link IdentityGenerator}.<br>
+ * Implementations trade precision for cost:
+ * <ul>
+ *     <li>{@link #system()} reads the system clock on every call</li>
+ *     <li>{@link #cached(long, TimeUnit)} returns a value refreshed by a daemon thread, a single volatile read</li>
+ *     <li>{@link #monotonic()} anchors on the system clock once then follows {@link System#nanoTime()},
+ *     never goes backwards</li>
+ * </ul>
+ *
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-05-26
+ */
+@FunctionalInterface
+public interface TimeSource {
+    /**
+     * @return current time as C# binary ticks of UTC kind
+     */
+    long tick();
+
+    default Instant instant() {
+        return Tick.of(tick()).toInstant();
+    }
+
+    /**
+     * @return the source used by {@link Tick#now()}
+     */
+    static TimeSource current() {
+        return Sources.CURRENT.get();
+    }
+
+    /**
+     * change the source used by {@link Tick#now()} and by generators following {@link #live()}
+     */
+    static void use(TimeSource source) {
+        Sources.CURRENT.set(Objects.requireNonNull(source, "time source should not be null"));
+    }
+
+    /**
+     * a source reading {@link #current()} on each call, so it follows later {@link #use(TimeSource)}
+     */
+    static TimeSource live() {
+        return Sources.LIVE;
+    }
+
+    static TimeSource system() {
+        return SystemTime.INSTANCE;
+    }
+
+    /**
+     * a cached clock refreshed by a daemon thread.
+     *
+     * @param resolution refresh interval
+     * @param unit       unit of resolution
+     */
+    static CachedTime cached(long resolution, TimeUnit unit) {
+        return new CachedTime(system(), unit.toNanos(resolution));
+    }
+
+    /**
+     * shared cached clock of 1 millisecond resolution, started on first use.
+     */
+    static TimeSource coarse() {
+        return Sources.Coarse.INSTANCE;
+    }
+
+    static TimeSource monotonic() {
+        return new MonotonicTime(system());
+    }
+
+    final class Sources {
+        static final AtomicReference<TimeSource> CURRENT = new AtomicReference<>(SystemTime.INSTANCE);
+        static final TimeSource LIVE = () -> CURRENT.get().tick();
+
+        static final class Coarse {
+            static final CachedTime INSTANCE = new CachedTime(SystemTime.INSTANCE, TimeUnit.MILLISECONDS.toNanos(1));
+        }
+
+        private Sources() {
+        }
+    }
+
+    final class SystemTime implements TimeSource {
+        static final SystemTime INSTANCE = new SystemTime();
+
+        private SystemTime() {
+        }
+
+        @Override
+        public long tick() {
+            return Tick.Ticks.fromUTC(Instant.now());
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.now();
+        }
+    }
+
+    final class CachedTime implements TimeSource, AutoCloseable {
+        final TimeSource source;
+        final long resolution;
+        final Thread updater;
+        volatile long tick;
+        volatile boolean running = true;
+
+        CachedTime(TimeSource source, long resolutionNanos) {
+            if (resolutionNanos < 100) throw new IllegalArgumentException("resolution should not less than one tick");
+            this.source = source;
+            this.resolution = resolutionNanos;
+            this.tick = source.tick();
+            this.updater = new Thread(this::update, "cached-time-source");
+            this.updater.setDaemon(true);
+            this.updater.start();
+        }
+
+        void update() {
+            while (running) {
+                LockSupport.parkNanos(this, resolution);
+                tick = source.tick();
+            }
+        }
+
+        public long getResolutionNanos() {
+            return resolution;
+        }
+
+        @Override
+        public long tick() {
+            return tick;
+        }
+
+        /**
+         * stop the updater, tick is frozen after close.
+         */
+        @Override
+        public void close() {
+            running = false;
+            LockSupport.unpark(updater);
+        }
+    }
+
+    final class MonotonicTime implements TimeSource {
+        final long kind;
+        final long anchor;
+        final long anchorNanos;
+
+        MonotonicTime(TimeSource source) {
+            final long now = source.tick();
+            this.anchorNanos = System.nanoTime();
+            this.kind = now & ~Tick.Ticks.TicksMask;
+            this.anchor = now & Tick.Ticks.TicksMask;
+        }
+
+        @Override
+        public long tick() {
+            return (anchor + (System.nanoTime() - anchorNanos) / 100) | kind;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package units.element;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-06-02
+ */
+class AsyncResultTest {
+    @Test
+    void hedgeNeverRunsOnTimerThread() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+        final AtomicReference<Thread> hedgeThread = new AtomicReference<>();
+        final CountDownLatch first = new CountDownLatch(1);
+        final ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            // first attempt blocks the pool, the hedge runs inline on whichever thread submits it
+            final AsyncResult<String> r = AsyncResult.hedge(() -> {
+                if (attempts.incrementAndGet() == 1) {
+                    try {
+                        first.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "first";
+                }
+                hedgeThread.set(Thread.currentThread());
+                return "hedge";
+            }, TimeUnit.MILLISECONDS.toNanos(20), task -> {
+                if (attempts.get() == 0) pool.execute(task);
+                else task.run();
+            }, AttemptListener.NONE);
+            assertEquals("hedge", r.join().getOrThrow());
+            assertNotNull(hedgeThread.get());
+            assertNotSame(TickTimer.WheelTimer.Shared.INSTANCE.driver, hedgeThread.get());
+        } finally {
+            first.countDown();
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void loserNotInterruptedByDefault() throws Exception {
+        final AtomicBoolean interrupted = new AtomicBoolean();
+        final CountDownLatch loserDone = new CountDownLatch(1);
+        final AtomicInteger attempts = new AtomicInteger();
+        final ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            final AsyncResult<String> r = Result.hedged(() -> {
+                if (attempts.incrementAndGet() == 1) {
+                    try {
+                        Thread.sleep(200);
+                    } catch (InterruptedException e) {
+                        interrupted.set(true);
+                    } finally {
+                        loserDone.countDown();
+                    }
+                    return "slow";
+                }
+                return "fast";
+            }, Duration.ofMillis(20), pool);
+            assertEquals("fast", r.join().getOrThrow());
+            assertTrue(loserDone.await(5, TimeUnit.SECONDS));
+            assertFalse(interrupted.get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void anyOfSkipsNothing() {
+        final AsyncResult<String> nothing = AsyncResult.completed(Result.nothing());
+        final AsyncResult<String> failed = AsyncResult.completed(Result.error(Errors.notExists("gone")));
+        final AsyncResult<String> value = AsyncResult.of(new CompletableFuture<>());
+        final AsyncResult<String> r = AsyncResult.anyOf(nothing, failed, value);
+        assertFalse(r.isDone());
+        value.toFuture().complete(Result.ok("v"));
+        assertEquals("v", r.join().getOrThrow());
+        assertTrue(AsyncResult.anyOf(failed, nothing).join().isNothing());
+        assertTrue(AsyncResult.anyOf(nothing, failed).join().hasError());
+    }
+
+    @Test
+    void errorOfAttemptCompletes() {
+        final ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            final AtomicInteger attempts = new AtomicInteger();
+            final AsyncResult<String> hedged = AsyncResult.hedge(() -> {
+                attempts.incrementAndGet();
+                throw new AssertionError("boom");
+            }, TimeUnit.MILLISECONDS.toNanos(5), pool, AttemptListener.NONE);
+            final Result<String> r = hedged.join(Deadline.after(Duration.ofSeconds(5)));
+            assertTrue(r.getError() instanceof AssertionError);
+            final AtomicInteger calls = new AtomicInteger();
+            final AsyncResult<String> retried = AsyncResult.retry(() -> {
+                if (calls.incrementAndGet() < 3) throw new StackOverflowError();
+                return "ok";
+            }, RetryPolicy.fixed(3, Duration.ofMillis(1)), pool, AttemptListener.NONE);
+            assertEquals("ok", retried.join(Deadline.after(Duration.ofSeconds(5))).getOrThrow());
+            assertEquals(3, calls.get());
+            final AsyncResult<String> failed = AsyncResult.retry(() -> {
+                throw new OutOfMemoryError("fake");
+            }, RetryPolicy.fixed(2, Duration.ofMillis(1)), pool, AttemptListener.NONE);
+            assertTrue(failed.join(Deadline.after(Duration.ofSeconds(5))).getError() instanceof OutOfMemoryError);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
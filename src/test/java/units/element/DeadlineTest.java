@@ -0,0 +1,102 @@
+package units.element;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-06-02
+ */
+class DeadlineTest {
+    final AtomicLong clock = new AtomicLong(Tick.Ticks.fromUTC(Instant.parse("2021-06-02T00:00:00Z")));
+    final TimeSource source = clock::get;
+
+    @Test
+    void budget() {
+        final Deadline deadline = Deadline.after(100, TimeUnit.MILLISECONDS, source);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), deadline.remainingNanos());
+        assertEquals(Duration.ofMillis(100), deadline.remaining());
+        assertFalse(deadline.isExpired());
+        deadline.check();
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(99) / 100);
+        assertFalse(deadline.isExpired());
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1) / 100);
+        assertTrue(deadline.isExpired());
+        assertEquals(0, deadline.remainingNanos());
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(5) / 100);
+        assertEquals(-TimeUnit.MILLISECONDS.toNanos(5), deadline.remainingNanos());
+        final Errors.TimeoutError error = assertThrows(Errors.TimeoutError.class, deadline::check);
+        assertTrue(error.getMessage().contains("5 ms"), error::getMessage);
+    }
+
+    @Test
+    void shrinkOnly() {
+        final Deadline deadline = Deadline.after(1, TimeUnit.SECONDS, source);
+        assertSame(deadline, deadline.shrink(2, TimeUnit.SECONDS));
+        final Deadline shorter = deadline.shrink(10, TimeUnit.MILLISECONDS);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(10), shorter.remainingNanos());
+        assertSame(source, shorter.getSource());
+        assertSame(shorter, deadline.min(shorter));
+        assertSame(shorter, shorter.min(deadline));
+        assertTrue(shorter.compareTo(deadline) < 0);
+        assertEquals(Deadline.at(shorter.getTick(), source), shorter);
+    }
+
+    @Test
+    void saturates() {
+        final Deadline past = Deadline.at(0, source);
+        assertTrue(past.isExpired());
+        assertEquals(Long.MIN_VALUE, past.remainingNanos());
+        assertTrue(past.toError().getMessage().contains("exceeded"));
+        final Deadline far = Deadline.at(Tick.Ticks.TicksMask, source);
+        assertEquals(Long.MAX_VALUE, far.remainingNanos());
+        assertFalse(far.isExpired());
+    }
+
+    @Test
+    void noneNeverExpires() {
+        assertFalse(Deadline.NONE.isExpired());
+        assertEquals(Long.MAX_VALUE, Deadline.NONE.remainingNanos());
+        Deadline.NONE.check();
+        final Deadline shrunk = Deadline.NONE.shrink(1, TimeUnit.SECONDS);
+        assertTrue(shrunk.remainingNanos() <= TimeUnit.SECONDS.toNanos(1) && shrunk.remainingNanos() > 0);
+        assertSame(shrunk, Deadline.NONE.min(shrunk));
+        assertEquals(Deadline.NONE, Deadline.at(Tick.Ticks.TicksMask, source));
+        assertEquals(Deadline.at(Tick.Ticks.TicksMask, source), Deadline.NONE);
+        final CompletableFuture<String> future = new CompletableFuture<>();
+        assertSame(future, Deadline.NONE.bound(future));
+        assertFalse(future.isDone());
+    }
+
+    @Test
+    void boundFailsFuture() throws Exception {
+        final CompletableFuture<String> late = Deadline.after(20, TimeUnit.MILLISECONDS, TimeSource.system())
+            .bound(new CompletableFuture<>());
+        final ExecutionException ex = assertThrows(ExecutionException.class, () -> late.get(5, TimeUnit.SECONDS));
+        assertTrue(ex.getCause() instanceof Errors.TimeoutError);
+        final CompletableFuture<String> expired = Deadline.at(0, source).bound(new CompletableFuture<>());
+        assertTrue(expired.isCompletedExceptionally());
+    }
+
+    @Test
+    void resultWithDeadline() {
+        final Deadline deadline = Deadline.after(10, TimeUnit.MILLISECONDS, source);
+        assertEquals("v", Result.with(deadline, () -> "v").getOrThrow());
+        final Result<String> slow = Result.with(deadline, () -> {
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(20) / 100);
+            return "late";
+        });
+        assertEquals("late", slow.getValue());
+        assertTrue(slow.getError() instanceof Errors.TimeoutError);
+        assertTrue(Result.with(deadline, () -> "skipped").getError() instanceof Errors.TimeoutError);
+    }
+}
@@ -0,0 +1,109 @@
+package units.element;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-06-02
+ */
+class IdentityCodecTest {
+    static Identity[] samples() {
+        final Random random = new Random(7);
+        final Identity[] ids = new Identity[64];
+        ids[0] = IdentityCodec.of(0, 0);
+        ids[1] = IdentityCodec.of(-1L, -1);
+        ids[2] = IdentityCodec.of(Long.MIN_VALUE, Integer.MIN_VALUE);
+        ids[3] = Identity.get();
+        for (int i = 4; i < ids.length; i++) ids[i] = IdentityCodec.of(random.nextLong(), random.nextInt());
+        return ids;
+    }
+
+    @Test
+    void bytesRoundTrip() {
+        for (Identity id : samples()) {
+            final byte[] dst = new byte[IdentityCodec.BYTES + 3];
+            assertEquals(3 + IdentityCodec.BYTES, IdentityCodec.writeBytes(id.getTick(), id.getPacked(), dst, 3));
+            final byte[] expected = id.toBytes();
+            for (int i = 0; i < IdentityCodec.BYTES; i++) assertEquals(expected[i], dst[3 + i]);
+            assertEquals(id, IdentityCodec.readBytes(dst, 3));
+            assertEquals(id, Identity.fromBytes(dst, 3));
+            assertEquals(3 + IdentityCodec.BYTES, id.writeTo(new byte[IdentityCodec.BYTES + 3], 3));
+        }
+    }
+
+    @Test
+    void bufferIsBigEndianInAnyOrder() {
+        for (ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+            for (ByteBuffer buf : new ByteBuffer[]{ByteBuffer.allocate(40), ByteBuffer.allocateDirect(40)}) {
+                buf.order(order);
+                for (Identity id : samples()) {
+                    buf.clear();
+                    buf.put((byte) 1);
+                    IdentityCodec.writeBytes(id.getTick(), id.getPacked(), buf);
+                    assertEquals(1 + IdentityCodec.BYTES, buf.position());
+                    IdentityCodec.writeBytes(id.getTick(), id.getPacked(), buf, 20);
+                    assertEquals(1 + IdentityCodec.BYTES, buf.position());
+                    final byte[] expected = id.toBytes();
+                    for (int i = 0; i < IdentityCodec.BYTES; i++) {
+                        assertEquals(expected[i], buf.get(1 + i));
+                        assertEquals(expected[i], buf.get(20 + i));
+                    }
+                    assertEquals(id, IdentityCodec.readBytes(buf, 1));
+                    assertEquals(id, IdentityCodec.readBytes(buf, 20));
+                }
+                buf.clear();
+                buf.position(30);
+                assertThrows(BufferOverflowException.class, () -> IdentityCodec.writeBytes(1, 2, buf));
+                assertThrows(IndexOutOfBoundsException.class, () -> IdentityCodec.writeBytes(1, 2, buf, 29));
+            }
+        }
+    }
+
+    @Test
+    void charsRoundTrip() {
+        for (Identity id : samples()) {
+            final char[] dst = new char[IdentityCodec.HEX_LENGTH + 2];
+            assertEquals(2 + IdentityCodec.HEX_LENGTH, IdentityCodec.encodeHex(id.getTick(), id.getPacked(), dst, 2));
+            assertEquals(id.toHex(), new String(dst, 2, IdentityCodec.HEX_LENGTH));
+            assertEquals(id, IdentityCodec.parse(dst, 2, IdentityCodec.HEX_LENGTH));
+            assertEquals(2 + IdentityCodec.COMPRESSED_LENGTH, IdentityCodec.encode(id.getTick(), id.getPacked(), dst, 2));
+            assertEquals(id.toIdentity(), new String(dst, 2, IdentityCodec.COMPRESSED_LENGTH));
+            assertEquals(id, IdentityCodec.parse(dst, 2, IdentityCodec.COMPRESSED_LENGTH));
+            assertEquals(id.toIdentity(), IdentityCodec.append(id.getTick(), id.getPacked(), new StringBuilder()).toString());
+            assertEquals(id.toHex(), IdentityCodec.appendHex(id.getTick(), id.getPacked(), new StringBuilder()).toString());
+            assertEquals("x" + id.toIdentity(), id.appendTo(new StringBuilder("x")).toString());
+            final byte[] ascii = ("  " + id.toIdentity()).getBytes(StandardCharsets.US_ASCII);
+            assertEquals(id, IdentityCodec.parseAscii(ascii, 2, IdentityCodec.COMPRESSED_LENGTH));
+        }
+    }
+
+    @Test
+    void allOnesIsValid() {
+        final Identity ones = IdentityCodec.of(-1L, -1);
+        final String compressed = ones.toIdentity();
+        final String hex = ones.toHex();
+        assertEquals(ones, Identity.tryParse(compressed, 0, compressed.length()));
+        assertEquals(ones, Identity.tryParse(hex.toCharArray(), 0, hex.length()));
+        final byte[] ascii = hex.getBytes(StandardCharsets.US_ASCII);
+        assertEquals(ones, Identity.tryParseAscii(ascii, 0, ascii.length));
+        assertEquals(ones, IdentityCodec.parse(hex, 0, hex.length()));
+    }
+
+    @Test
+    void invalidIsNull() {
+        assertNull(Identity.tryParse("not an identity!", 0, 16));
+        assertNull(Identity.tryParse("abc", 0, 3));
+        assertNull(Identity.tryParse((CharSequence) null, 0, 0));
+        assertNull(Identity.tryParseAscii(new byte[24], 0, 24));
+        assertThrows(IllegalArgumentException.class, () -> IdentityCodec.parse("abc", 0, 3));
+    }
+}
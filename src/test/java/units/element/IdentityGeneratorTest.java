@@ -0,0 +1,115 @@
+package units.element;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-06-02
+ */
+class IdentityGeneratorTest {
+    @Test
+    void swapCarriesLastTick() {
+        final long now = TimeSource.current().tick();
+        final TimeSource frozen = () -> now;
+        final IdentityGenerator previous = Identity.Identifier.GENERATOR.get();
+        try {
+            final IdentityGenerator first = IdentityGenerator.striped(1, frozen);
+            Identity.setGenerator(first);
+            final Set<Identity> ids = new HashSet<>();
+            Identity last = null;
+            for (int i = 0; i < 300; i++) {
+                last = Identity.get();
+                assertTrue(ids.add(last));
+            }
+            assertEquals(last.getTick() & Tick.Ticks.TicksMask, first.lastTick());
+            Identity.setGenerator(IdentityGenerator.striped(1, frozen));
+            for (int i = 0; i < 300; i++) {
+                final Identity id = Identity.get();
+                assertTrue(id.compareTo(last) > 0);
+                assertTrue(ids.add(id));
+            }
+        } finally {
+            Identity.Identifier.GENERATOR.set(previous);
+        }
+    }
+
+    @Test
+    void lastTickOfUnusedGenerator() {
+        final IdentityGenerator generator = IdentityGenerator.striped(4);
+        assertEquals(-1, generator.lastTick());
+        generator.next();
+        assertTrue(generator.lastTick() >= 0);
+    }
+
+    @Test
+    void batchIsOrderedAndUnique() {
+        final long now = TimeSource.current().tick();
+        final IdentityGenerator generator = IdentityGenerator.striped(4, () -> now);
+        final Identity before = generator.next();
+        // larger than one lane of a tick, borrows later ticks
+        final IdentityGenerator.Batch batch = generator.batch(300);
+        final Identity after = generator.next();
+        assertEquals(300, batch.size());
+        final Identity[] ids = batch.toArray();
+        final Set<Identity> seen = new HashSet<>();
+        for (int i = 0; i < ids.length; i++) {
+            assertTrue(seen.add(ids[i]));
+            assertEquals(ids[i], batch.get(i));
+            assertEquals(ids[i].getTick(), batch.tick(i));
+            assertEquals(ids[i].getPacked(), batch.packed(i));
+            if (i > 0) assertTrue(ids[i - 1].compareTo(ids[i]) < 0);
+        }
+        assertTrue(ids[ids.length - 1].getTick() > ids[0].getTick());
+        assertTrue(before.compareTo(ids[0]) < 0);
+        assertTrue(ids[ids.length - 1].compareTo(after) < 0);
+        assertFalse(seen.contains(before));
+        assertFalse(seen.contains(after));
+
+        final long[] ticks = new long[302];
+        final int[] packs = new int[302];
+        assertEquals(302, batch.writeTo(ticks, packs, 2));
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(ids[i].getTick(), ticks[2 + i]);
+            assertEquals(ids[i].getPacked(), packs[2 + i]);
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(300 * IdentityCodec.BYTES);
+        batch.writeTo(buffer);
+        assertFalse(buffer.hasRemaining());
+        for (int i = 0; i < ids.length; i++) assertEquals(ids[i], IdentityCodec.readBytes(buffer, i * IdentityCodec.BYTES));
+    }
+
+    @Test
+    void batchBounds() {
+        final IdentityGenerator generator = IdentityGenerator.striped(1);
+        assertThrows(IllegalArgumentException.class, () -> generator.batch(0));
+        final IdentityGenerator.Batch batch = generator.batch(3);
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.get(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.tick(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.writeTo(new long[4], new int[4], 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.writeTo(ByteBuffer.allocate(35)));
+        assertEquals(3, Identity.batch(3).size());
+    }
+
+    @Test
+    void defaultFollowsTimeSource() {
+        final IdentityGenerator previous = Identity.Identifier.GENERATOR.get();
+        final TimeSource source = TimeSource.current();
+        final long later = source.tick() + 36_000_000_000L;
+        try {
+            Identity.setGenerator(IdentityGenerator.striped());
+            TimeSource.use(() -> later);
+            final Identity id = Identity.get();
+            assertEquals(later & Tick.Ticks.TicksMask, id.getTick() & Tick.Ticks.TicksMask);
+        } finally {
+            TimeSource.use(source);
+            Identity.Identifier.GENERATOR.set(previous);
+        }
+    }
+}
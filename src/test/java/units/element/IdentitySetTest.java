@@ -0,0 +1,33 @@
+package units.element;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-06-02
+ */
+class IdentitySetTest {
+    @Test
+    void setGrows() {
+        final IdentitySet set = IdentitySet.create(0);
+        assertTrue(set.add(0, 0));
+        for (int i = 1; i <= 10_000; i++) assertTrue(set.add(i, i * 31));
+        assertFalse(set.add(5, 5 * 31));
+        assertEquals(10_001, set.size());
+        for (int i = 0; i <= 10_000; i++) assertTrue(set.contains(i, i * 31));
+        assertFalse(set.contains(10_001, 10_001 * 31));
+    }
+
+    @Test
+    void mapGrows() {
+        final IdentityMap<Integer> map = IdentityMap.create(0);
+        for (int i = 0; i <= 10_000; i++) assertNull(map.put(i, i * 31, i));
+        assertEquals(Integer.valueOf(7), map.put(7, 7 * 31, -7));
+        assertEquals(10_001, map.size());
+        assertEquals(Integer.valueOf(-7), map.get(7, 7 * 31));
+        for (int i = 0; i <= 10_000; i++) if (i != 7) assertEquals(Integer.valueOf(i), map.get(i, i * 31));
+    }
+}
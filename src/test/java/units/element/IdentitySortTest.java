@@ -0,0 +1,41 @@
+package units.element;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-06-02
+ */
+class IdentitySortTest {
+    @Test
+    void sortRange() {
+        final Identity[] ids = new Identity[100];
+        for (int i = 0; i < ids.length; i++) ids[i] = Identity.get();
+        final Identity[] sorted = ids.clone();
+        final List<Identity> middle = Arrays.asList(ids).subList(20, 80);
+        Collections.reverse(middle);
+        final Identity[] expected = ids.clone();
+        Arrays.sort(expected, 20, 80);
+        IdentitySort.sort(ids, 20, 80);
+        assertArrayEquals(expected, ids);
+        IdentitySort.sort(ids);
+        assertArrayEquals(sorted, ids);
+    }
+
+    @Test
+    void rangeChecked() {
+        final Identity[] ids = {Identity.get(), Identity.get()};
+        assertThrows(IndexOutOfBoundsException.class, () -> IdentitySort.sort(ids, -1, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> IdentitySort.sort(ids, 2, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> IdentitySort.sort(ids, 0, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> IdentitySort.sort(new long[2], new int[2], 1, 3));
+        IdentitySort.sort(ids, 2, 2);
+    }
+}
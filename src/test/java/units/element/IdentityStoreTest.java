@@ -0,0 +1,101 @@
+package units.element;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-06-02
+ */
+class IdentityStoreTest {
+    static final long BASE = Tick.Ticks.KindUtc | 637_580_000_000_000_000L;
+
+    static final class Id implements Comparable<Id> {
+        final long tick;
+        final int packed;
+
+        Id(long tick, int packed) {
+            this.tick = tick;
+            this.packed = packed;
+        }
+
+        @Override
+        public int compareTo(Id o) {
+            return IdentityCodec.compare(tick, packed, o.tick, o.packed);
+        }
+    }
+
+    @Test
+    void prunedLookupsMatchReference(@TempDir Path dir) throws Exception {
+        final TreeSet<Id> expected = new TreeSet<>();
+        final Random random = new Random(7);
+        try (IdentityStore store = IdentityStore.open(dir, 500)) {
+            // time ordered, with some late and duplicate ids falling into sealed ranges
+            for (int i = 0; i < 20_000; i++) {
+                final long tick = random.nextInt(10) == 0 ? BASE + random.nextInt(i + 1) : BASE + i;
+                final int packed = random.nextInt(4);
+                assertEquals(expected.add(new Id(tick, packed)), store.add(tick, packed));
+            }
+            assertTrue(store.segments() >= 30);
+            verify(store, expected, random);
+        }
+        try (IdentityStore store = IdentityStore.open(dir, 500)) {
+            assertEquals(expected.size(), store.size());
+            verify(store, expected, random);
+            assertFalse(store.add(expected.first().tick, expected.first().packed));
+            assertFalse(store.add(expected.last().tick, expected.last().packed));
+        }
+    }
+
+    @Test
+    void durableAfterFlushAndSeal(@TempDir Path dir) throws Exception {
+        try (IdentityStore store = IdentityStore.open(dir, 1_000)) {
+            for (int i = 0; i < 100; i++) assertTrue(store.add(BASE + i, 1));
+            // still buffered, another reader sees nothing
+            try (IdentityStore other = IdentityStore.open(dir, 1_000)) {
+                assertEquals(0, other.size());
+            }
+            store.flush();
+            try (IdentityStore other = IdentityStore.open(dir, 1_000)) {
+                assertEquals(100, other.size());
+                assertEquals(0, other.segments());
+            }
+            for (int i = 100; i < 200; i++) assertTrue(store.add(BASE + i, 1));
+            store.seal();
+            try (IdentityStore other = IdentityStore.open(dir, 1_000)) {
+                assertEquals(200, other.size());
+                assertEquals(1, other.segments());
+            }
+            try (Stream<Path> files = Files.list(dir)) {
+                assertFalse(files.anyMatch(p -> p.getFileName().toString().endsWith(".tmp")));
+            }
+        }
+    }
+
+    static void verify(IdentityStore store, TreeSet<Id> expected, Random random) {
+        for (int i = 0; i < 5_000; i++) {
+            final long tick = BASE - 10 + random.nextInt(20_020);
+            final int packed = random.nextInt(5);
+            final Id id = new Id(tick, packed);
+            assertEquals(expected.contains(id), store.contains(tick, packed));
+            assertEquals(expected.headSet(id).size(), store.rank(tick, packed));
+        }
+        final long from = BASE + 5_000;
+        final long to = BASE + 6_000;
+        final long[] seen = {0};
+        store.scan(from, to, (tick, packed) -> {
+            assertTrue(tick >= from && tick < to);
+            seen[0]++;
+        });
+        assertEquals(expected.subSet(new Id(from, 0), new Id(to, 0)).size(), seen[0]);
+    }
+}
@@ -0,0 +1,245 @@
+package units.element;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Contention and uniqueness harness of Identity generation.<br>
+ * Hammers a source from N threads for a fixed time, records every latency into a per thread histogram,
+ * keeps up to a limit of generated ids per thread and counts duplicates with an {@link IdentitySet} afterwards.
+ * Driven by {@link IdentityStressTest}.
+ *
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-05-27
+ */
+interface IdentityStress {
+    /**
+     * default max ids kept per thread for duplicate check
+     */
+    int DEFAULT_RECORD_LIMIT = 1 << 22;
+
+    static Report run(int threads, long millis) {
+        return run(Identity::get, threads, millis, DEFAULT_RECORD_LIMIT);
+    }
+
+    /**
+     * @param source      the identity source
+     * @param threads     concurrent threads
+     * @param millis      run time
+     * @param recordLimit max ids kept per thread for duplicate check
+     */
+    static Report run(Supplier<Identity> source, int threads, long millis, int recordLimit) {
+        if (threads < 1) throw new IllegalArgumentException("threads should be positive");
+        final AtomicBoolean stop = new AtomicBoolean();
+        final CountDownLatch start = new CountDownLatch(1);
+        final Worker[] workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(source, stop, start, recordLimit);
+            workers[i].setName("identity-stress-" + i);
+            workers[i].start();
+        }
+        final long begin = System.nanoTime();
+        start.countDown();
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        stop.set(true);
+        for (Worker worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        final long elapsed = System.nanoTime() - begin;
+        long total = 0;
+        long recorded = 0;
+        final Histogram latency = new Histogram();
+        for (Worker worker : workers) {
+            total += worker.count;
+            recorded += worker.recorded;
+            latency.add(worker.latency);
+        }
+        final IdentitySet seen = IdentitySet.create((int) Math.min(recorded, Integer.MAX_VALUE >> 2));
+        long duplicates = 0;
+        for (Worker worker : workers) {
+            for (int i = 0; i < worker.recorded; i++) {
+                if (!seen.add(worker.ticks[i], worker.packs[i])) duplicates++;
+            }
+        }
+        return new Report(threads,
+            Identity.Identifier.MACHINE.get() & 0xFFFF,
+            Identity.Identifier.REGION.get() & 0xFF,
+            total, total * TimeUnit.SECONDS.toNanos(1) / Math.max(1, elapsed),
+            latency.percentile(0.5), latency.percentile(0.99), latency.percentile(0.999), latency.max,
+            recorded, duplicates);
+    }
+
+    /**
+     * run with each machine and region configuration, configuration is restored after.
+     *
+     * @param configs pairs of {machine, region}
+     */
+    static List<Report> sweep(int threads, long millis, short[]... configs) {
+        final int machine = Identity.Identifier.MACHINE.get();
+        final int region = Identity.Identifier.REGION.get();
+        final List<Report> reports = new ArrayList<>(configs.length);
+        try {
+            for (short[] config : configs) {
+                Identity.setMachine(config[0]);
+                Identity.setRegion(config[1]);
+                reports.add(run(threads, millis));
+            }
+        } finally {
+            Identity.Identifier.MACHINE.set(machine);
+            Identity.Identifier.REGION.set(region);
+        }
+        return reports;
+    }
+
+    final class Report {
+        public final int threads;
+        public final int machine;
+        public final int region;
+        public final long total;
+        public final long idsPerSecond;
+        public final long p50Nanos;
+        public final long p99Nanos;
+        public final long p999Nanos;
+        public final long maxNanos;
+        public final long checked;
+        public final long duplicates;
+
+        Report(int threads, int machine, int region, long total, long idsPerSecond,
+               long p50Nanos, long p99Nanos, long p999Nanos, long maxNanos, long checked, long duplicates) {
+            this.threads = threads;
+            this.machine = machine;
+            this.region = region;
+            this.total = total;
+            this.idsPerSecond = idsPerSecond;
+            this.p50Nanos = p50Nanos;
+            this.p99Nanos = p99Nanos;
+            this.p999Nanos = p999Nanos;
+            this.maxNanos = maxNanos;
+            this.checked = checked;
+            this.duplicates = duplicates;
+        }
+
+        @Override
+        public String toString() {
+            return "Report{" +
+                "threads=" + threads +
+                ", machine=" + machine +
+                ", region=" + region +
+                ", total=" + total +
+                ", ids/s=" + idsPerSecond +
+                ", p50=" + p50Nanos + "ns" +
+                ", p99=" + p99Nanos + "ns" +
+                ", p999=" + p999Nanos + "ns" +
+                ", max=" + maxNanos + "ns" +
+                ", checked=" + checked +
+                ", duplicates=" + duplicates +
+                '}';
+        }
+    }
+
+    final class Worker extends Thread {
+        final Supplier<Identity> source;
+        final AtomicBoolean stop;
+        final CountDownLatch start;
+        final int limit;
+        final Histogram latency = new Histogram();
+        long[] ticks = new long[1024];
+        int[] packs = new int[1024];
+        int recorded;
+        long count;
+
+        Worker(Supplier<Identity> source, AtomicBoolean stop, CountDownLatch start, int limit) {
+            this.source = source;
+            this.stop = stop;
+            this.start = start;
+            this.limit = limit;
+        }
+
+        @Override
+        public void run() {
+            try {
+                start.await();
+            } catch (InterruptedException e) {
+                return;
+            }
+            long n = 0;
+            while (!stop.get()) {
+                final long begin = System.nanoTime();
+                final Identity id = source.get();
+                latency.record(System.nanoTime() - begin);
+                n++;
+                if (recorded < limit) {
+                    if (recorded == ticks.length) {
+                        final int cap = (int) Math.min((long) recorded << 1, limit);
+                        ticks = Arrays.copyOf(ticks, cap);
+                        packs = Arrays.copyOf(packs, cap);
+                    }
+                    ticks[recorded] = id.getTick();
+                    packs[recorded] = id.getPacked();
+                    recorded++;
+                }
+            }
+            count = n;
+        }
+    }
+
+    /**
+     * log linear histogram of nanos, 64 sub buckets per power of 2, about 1.5% precision.
+     */
+    final class Histogram {
+        static final int SUB_BITS = 6;
+        static final int SUB = 1 << SUB_BITS;
+        final long[] counts = new long[(64 - SUB_BITS) * SUB + SUB];
+        long total;
+        long max;
+
+        static int index(long v) {
+            if (v < SUB) return (int) Math.max(0, v);
+            final int exp = 63 - Long.numberOfLeadingZeros(v) - SUB_BITS;
+            return (exp + 1) * SUB + (int) ((v >>> exp) & (SUB - 1));
+        }
+
+        static long valueOf(int index) {
+            if (index < SUB) return index;
+            final int exp = index / SUB - 1;
+            return ((long) (SUB + index % SUB)) << exp;
+        }
+
+        void record(long nanos) {
+            counts[index(nanos)]++;
+            total++;
+            if (nanos > max) max = nanos;
+        }
+
+        void add(Histogram other) {
+            for (int i = 0; i < counts.length; i++) counts[i] += other.counts[i];
+            total += other.total;
+            max = Math.max(max, other.max);
+        }
+
+        long percentile(double p) {
+            if (total == 0) return 0;
+            final long rank = (long) Math.ceil(total * p);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(valueOf(i), max);
+            }
+            return max;
+        }
+    }
+}
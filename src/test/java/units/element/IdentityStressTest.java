@@ -0,0 +1,58 @@
+package units.element;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-06-02
+ */
+class IdentityStressTest {
+    static final int THREADS = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+    static final long MILLIS = 300;
+
+    @Test
+    void noDuplicatesUnderContention() {
+        for (int n = 1; n <= THREADS; n <<= 1) {
+            final IdentityStress.Report report = IdentityStress.run(Identity::get, n, MILLIS, 1 << 18);
+            assertTrue(report.total > 0, report::toString);
+            assertTrue(report.checked > 0, report::toString);
+            assertEquals(0, report.duplicates, report::toString);
+            assertTrue(report.p50Nanos <= report.p99Nanos && report.p99Nanos <= report.maxNanos, report::toString);
+        }
+    }
+
+    @Test
+    void noDuplicatesAcrossConfigs() {
+        final List<IdentityStress.Report> reports = IdentityStress.sweep(THREADS, MILLIS,
+            new short[]{0, 0}, new short[]{1, 1}, new short[]{255, 255});
+        assertEquals(3, reports.size());
+        for (IdentityStress.Report report : reports) assertEquals(0, report.duplicates, report::toString);
+    }
+
+    @Test
+    void stripedGeneratorThroughput() {
+        for (int lanes : new int[]{1, IdentityGenerator.MAX_LANES}) {
+            final IdentityGenerator generator = IdentityGenerator.striped(lanes);
+            final IdentityStress.Report report = IdentityStress.run(generator::next, THREADS, MILLIS, 1 << 18);
+            assertTrue(report.idsPerSecond > 0, report::toString);
+            assertEquals(0, report.duplicates, report::toString);
+        }
+    }
+
+    @Test
+    void histogramPercentiles() {
+        final IdentityStress.Histogram histogram = new IdentityStress.Histogram();
+        for (long v = 1; v <= 100_000; v++) histogram.record(v);
+        assertEquals(100_000, histogram.max);
+        final long p50 = histogram.percentile(0.5);
+        assertTrue(Math.abs(p50 - 50_000) <= 50_000 * 0.02, () -> "p50 " + p50);
+        final long p99 = histogram.percentile(0.99);
+        assertTrue(Math.abs(p99 - 99_000) <= 99_000 * 0.02, () -> "p99 " + p99);
+    }
+}
@@ -0,0 +1,168 @@
+package units.element;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-06-02
+ */
+class IdentityTimeIndexTest {
+    static final long SPAN = 10;
+
+    static IdentityTimeIndex.BucketTimeIndex index() {
+        return (IdentityTimeIndex.BucketTimeIndex) IdentityTimeIndex.create(Duration.ofNanos(SPAN * 100));
+    }
+
+    static List<Long> scan(IdentityTimeIndex index, long from, long to) {
+        final List<Long> out = new ArrayList<>();
+        index.scan(from, to, (tick, packed) -> {
+            assertEquals((int) tick, packed);
+            out.add(tick);
+        });
+        return out;
+    }
+
+    /**
+     * ticks in [from, to) ordered by bucket, in insertion order inside a bucket
+     */
+    static List<Long> expected(List<Long> added, long from, long to) {
+        final List<Long> out = new ArrayList<>();
+        for (Long tick : added) if (tick >= from && tick < to) out.add(tick);
+        out.sort(Comparator.comparingLong(t -> t / SPAN));
+        return out;
+    }
+
+    static void add(IdentityTimeIndex index, List<Long> added, long tick) {
+        index.add(tick, (int) tick);
+        added.add(tick);
+    }
+
+    @Test
+    void outOfOrderBucketsCompactAndGrow() {
+        final IdentityTimeIndex.BucketTimeIndex index = index();
+        final List<Long> added = new ArrayList<>();
+        for (long k = 100; k < 116; k++) add(index, added, k * SPAN);
+        assertEquals(16, index.buckets.length);
+        // move head forward then fill the tail, the next insert compacts in place
+        assertEquals(10, index.evictBefore(110 * SPAN));
+        added.removeIf(t -> t < 110 * SPAN);
+        assertEquals(10, index.head);
+        add(index, added, 99 * SPAN + 3);
+        add(index, added, 105 * SPAN + 1);
+        add(index, added, 112 * SPAN + 5);
+        assertEquals(16, index.buckets.length);
+        assertEquals(0, index.head);
+        // descending inserts into the middle until the array grows
+        for (long k = 140; k > 116; k--) add(index, added, k * SPAN + 7);
+        assertTrue(index.buckets.length > 16);
+        assertEquals(added.size(), index.size());
+        for (int i = index.head + 1; i < index.head + index.buckets(); i++)
+            assertTrue(index.buckets[i - 1].key < index.buckets[i].key);
+        assertEquals(expected(added, 0, Long.MAX_VALUE), scan(index, 0, Long.MAX_VALUE));
+    }
+
+    @Test
+    void scanInsideAndAcrossBuckets() {
+        final IdentityTimeIndex index = index();
+        final List<Long> added = new ArrayList<>();
+        for (long t = 1000; t < 1100; t += 3) add(index, added, t);
+        add(index, added, 1001);
+        // inside one bucket, both ends cut
+        assertEquals(asList(1003L, 1006L, 1001L), scan(index, 1001, 1007));
+        assertEquals(expected(added, 1001, 1007), scan(index, 1001, 1007));
+        // across buckets, partial first and last
+        assertEquals(expected(added, 1005, 1052), scan(index, 1005, 1052));
+        // bucket aligned
+        assertEquals(expected(added, 1010, 1050), scan(index, 1010, 1050));
+        assertTrue(scan(index, 1050, 1050).isEmpty());
+        assertTrue(scan(index, 2000, 3000).isEmpty());
+        assertTrue(scan(index, 0, 1000).isEmpty());
+    }
+
+    @Test
+    void evictThenInsert() {
+        final IdentityTimeIndex index = index();
+        final List<Long> added = new ArrayList<>();
+        for (long t = 0; t < 200; t += 4) add(index, added, t);
+        final int before = index.size();
+        // a bucket partly older than the tick is kept
+        final int dropped = index.evictBefore(105);
+        assertEquals(added.stream().filter(t -> t < 100).count(), dropped);
+        assertEquals(before - dropped, index.size());
+        added.removeIf(t -> t < 100);
+        assertEquals(expected(added, 0, 1000), scan(index, 0, 1000));
+        add(index, added, 50);
+        add(index, added, 101);
+        add(index, added, 300);
+        assertEquals(expected(added, 0, 1000), scan(index, 0, 1000));
+        assertEquals(added.size(), index.evictBefore(10_000));
+        assertEquals(0, index.size());
+        assertEquals(0, index.buckets());
+        add(index, added, 7);
+        assertEquals(asList(7L), scan(index, 0, 1000));
+    }
+
+    @Test
+    void randomAgainstList() {
+        final Random random = new Random(42);
+        final IdentityTimeIndex index = index();
+        final List<Long> added = new ArrayList<>();
+        for (int op = 0; op < 5000; op++) {
+            final int kind = random.nextInt(20);
+            if (kind == 0) {
+                final long tick = random.nextInt(3000);
+                final long key = tick / SPAN;
+                index.evictBefore(tick);
+                added.removeIf(t -> t / SPAN < key);
+            } else if (kind == 1) {
+                final long a = random.nextInt(3000), b = random.nextInt(3000);
+                assertEquals(expected(added, Math.min(a, b), Math.max(a, b)), scan(index, Math.min(a, b), Math.max(a, b)));
+            } else add(index, added, random.nextInt(3000));
+            assertEquals(added.size(), index.size());
+        }
+    }
+
+    @Test
+    void instantRange() {
+        final IdentityTimeIndex index = IdentityTimeIndex.create(Duration.ofMillis(1));
+        final Instant base = Instant.parse("2021-06-02T00:00:00Z");
+        final Identity inside = Identity.Identifier.of(Tick.Ticks.fromUTC(base.plusMillis(5)), (byte) 1, (short) 2, (byte) 3);
+        final Identity outside = Identity.Identifier.of(Tick.Ticks.fromUTC(base.plusMillis(20)), (byte) 1, (short) 2, (byte) 3);
+        index.add(inside);
+        index.add(outside);
+        final List<Identity> out = new ArrayList<>();
+        index.scan(base, base.plusMillis(10), (tick, packed) -> out.add(IdentityCodec.of(tick, packed)));
+        assertEquals(asList(inside), out);
+        assertEquals(1, index.evictBefore(base.plusMillis(10)));
+    }
+
+    @Test
+    void identityBounds() {
+        final Instant instant = Instant.parse("2021-06-02T01:02:03.456789Z");
+        final Identity lower = Identity.lowerBound(instant);
+        final Identity upper = Identity.upperBound(instant);
+        final long tick = Tick.Ticks.fromUTC(instant);
+        final Identity mid = Identity.Identifier.of(tick, (byte) 7, (short) 300, (byte) 9);
+        assertTrue(lower.compareTo(mid) < 0);
+        assertTrue(mid.compareTo(upper) < 0);
+        assertEquals(tick, lower.getTick());
+        assertEquals(tick, upper.getTick());
+        assertEquals(instant, lower.getInstant());
+        assertTrue(Identity.upperBound(instant.minusNanos(100)).compareTo(lower) < 0);
+        assertTrue(upper.compareTo(Identity.lowerBound(instant.plusNanos(100))) < 0);
+        final Identity now = Identity.get();
+        assertTrue(Identity.lowerBound(now.getInstant()).compareTo(now) <= 0);
+        assertTrue(Identity.upperBound(now.getInstant()).compareTo(now) >= 0);
+    }
+}
@@ -0,0 +1,151 @@
+package units.element;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-06-02
+ */
+class LazySequenceTest {
+    @Test
+    void takeBeforeFlatMapKeepsFanOut() {
+        assertEquals(asList(1, 10, 100),
+            Monad.seqOf(1, 2, 3).take(1).flatMap(x -> asList(x, x * 10, x * 100)).toList());
+        assertEquals(asList(1, 10, 2, 20), Monad.seqOf(1, 2, 3).take(2).flatMap(x -> asList(x, x * 10)).toList());
+    }
+
+    @Test
+    void takeAfterFlatMapStopsFanOut() {
+        assertEquals(asList(1, 10, 100, 2),
+            Monad.seqOf(1, 2, 3).flatMap(x -> asList(x, x * 10, x * 100)).take(4).toList());
+        assertEquals(asList(1, 10),
+            Monad.seqOf(1, 2, 3).take(1).flatMap(x -> asList(x, x * 10, x * 100)).take(2).toList());
+    }
+
+    @Test
+    void takeStopsPulling() {
+        final AtomicInteger pulled = new AtomicInteger();
+        final List<Integer> out = Monad.seqOf(1, 2, 3, 4, 5).peek(x -> pulled.incrementAndGet()).take(2).toList();
+        assertEquals(asList(1, 2), out);
+        assertEquals(2, pulled.get());
+        assertEquals(0, Monad.seqOf(1, 2, 3).peek(x -> pulled.incrementAndGet()).take(0).toList().size());
+        assertEquals(2, pulled.get());
+    }
+
+    @Test
+    void dropAndTake() {
+        assertEquals(asList(3, 4), Monad.seqOf(1, 2, 3, 4, 5).drop(2).take(2).toList());
+        assertEquals(asList(3), Monad.seqOf(1, 2, 3, 4, 5).take(3).drop(2).toList());
+        assertEquals(asList(2, 20, 3), Monad.seqOf(1, 2, 3).flatMap(x -> asList(x, x * 10)).drop(2).take(3).toList());
+        assertTrue(Monad.seqOf(1, 2).drop(5).toList().isEmpty());
+    }
+
+    @Test
+    void fusedMatchesEager() {
+        final List<Integer> src = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) src.add(i);
+        final List<Integer> expected = new ArrayList<>();
+        for (Integer x : src) {
+            final int y = x * 3;
+            if (y % 2 != 0) continue;
+            expected.add(y);
+            expected.add(y + 1);
+        }
+        assertEquals(expected, Monad.seq(src).map(x -> x * 3).filter(x -> x % 2 == 0)
+            .flatMap(x -> asList(x, x + 1)).toList());
+        assertEquals(Long.valueOf(499500), Monad.seq(src).map(Integer::longValue).reduce(0L, Long::sum));
+        assertEquals(10, Monad.seq(src).mapSet(x -> x % 10).get().size());
+    }
+
+    @Test
+    void presizeWhenSizeKnown() {
+        final Collection<Integer> src = Arrays.asList(1, 2, 3, 4, 5, 6);
+        assertEquals(6, lazy(src).map(x -> x + 1).peek(x -> {
+        }).expectedSize());
+        assertEquals(3, lazy(src).drop(1).take(3).expectedSize());
+        assertEquals(0, lazy(src).drop(10).expectedSize());
+        assertEquals(-1, lazy(src).filter(x -> x > 2).expectedSize());
+        assertEquals(-1, lazy(src).flatMap(x -> asList(x, x)).expectedSize());
+    }
+
+    @Test
+    void getIsMemoized() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Monad.Sequence<?, Integer> seq = Monad.seqOf(1, 2, 3).map(x -> {
+            calls.incrementAndGet();
+            return x * 2;
+        });
+        assertEquals(0, calls.get());
+        final Collection<Integer> first = seq.get();
+        assertSame(first, seq.get());
+        assertEquals(asList(2, 4, 6), seq.toList());
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void sourceIsLive() {
+        final List<Integer> src = new ArrayList<>(asList(1, 2));
+        final Monad.Sequence<?, Integer> seq = Monad.seq(src).map(x -> x * 10);
+        src.add(3);
+        assertEquals(asList(10, 20, 30), seq.toList());
+    }
+
+    @Test
+    void parallelKeepsOrder() {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final List<Integer> src = new ArrayList<>();
+            for (int i = 0; i < 500; i++) src.add(i);
+            final List<Integer> expected = new ArrayList<>();
+            for (Integer x : src) if (x % 3 != 0) expected.add(x * 2);
+            assertEquals(expected, Monad.seq(src).parallel(pool, 16).filter(x -> x % 3 != 0).map(x -> x * 2).toList());
+            assertEquals(src, Monad.seq(src).parallelMap(x -> x, pool, 16).toList());
+            final Set<Integer> set = Monad.seq(src).parallel(pool, 16).map(x -> x % 50).toSet();
+            assertEquals(50, set.size());
+            assertEquals(new HashSet<>(src.subList(0, 50)), set);
+            // below the threshold runs sequential with the same output
+            assertEquals(expected,
+                Monad.seq(src).parallel(pool, 10_000).filter(x -> x % 3 != 0).map(x -> x * 2).toList());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void getIsSharedAcrossThreads() throws Exception {
+        final List<Integer> src = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) src.add(i);
+        final List<Integer> expected = new ArrayList<>();
+        for (Integer x : src) expected.add(x + 1);
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int round = 0; round < 50; round++) {
+                final Monad.LazySequence<Integer> seq = lazy(src).map(x -> x + 1);
+                final List<ForkJoinTask<Collection<Integer>>> tasks = new ArrayList<>();
+                for (int i = 0; i < 4; i++) tasks.add(pool.submit(seq::get));
+                for (ForkJoinTask<Collection<Integer>> task : tasks) assertEquals(expected, task.get());
+                assertSame(seq.get(), seq.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    static Monad.LazySequence<Integer> lazy(Collection<Integer> src) {
+        return Monad.LazySequence.of(src);
+    }
+}
@@ -0,0 +1,69 @@
+package units.element;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-06-02
+ */
+class PrimitiveResultTest {
+    @Test
+    void zeroIsPresent() {
+        final IntResult zero = IntResult.ok(0);
+        assertTrue(zero.isPresent());
+        assertFalse(zero.isNothing());
+        assertEquals(0, zero.getOrThrow());
+        assertEquals(Integer.valueOf(0), zero.boxed().getOrThrow());
+        assertEquals(7, IntResult.nothing().orElse(7));
+        assertEquals(0, zero.orElse(7));
+        assertEquals(0, IntResult.nothing().getAsInt());
+        assertThrows(Result.Both.NothingExistsError.class, () -> IntResult.nothing().getOrThrow());
+        assertTrue(IntResult.nothing().boxed().isNothing());
+    }
+
+    @Test
+    void extremesBox() {
+        assertEquals(Long.valueOf(Long.MIN_VALUE), LongResult.ok(Long.MIN_VALUE).boxed().getOrThrow());
+        assertEquals(Integer.valueOf(Integer.MAX_VALUE), IntResult.ok(Integer.MAX_VALUE).boxed().getOrThrow());
+        assertTrue(DoubleResult.ok(Double.NaN).boxed().getOrThrow().isNaN());
+        assertTrue(DoubleResult.ok(Double.NaN).isPresent());
+        assertEquals(Double.valueOf(-0.0), DoubleResult.ok(-0.0).boxed().getOrThrow());
+    }
+
+    @Test
+    void errorCarried() {
+        final IllegalStateException ex = new IllegalStateException("x");
+        final LongResult both = LongResult.done(3, ex);
+        assertSame(ex, assertThrows(IllegalStateException.class, both::getOrThrow));
+        final Result<Long> boxed = both.map(v -> v * 2).boxed();
+        assertEquals(Long.valueOf(6), boxed.getValue());
+        assertSame(ex, boxed.getError());
+        final IntResult failed = IntResult.error(ex);
+        assertSame(failed, failed.map(v -> v + 1));
+        assertSame(ex, failed.mapToObj(String::valueOf).getError());
+        assertEquals("y", failed.mapError(e -> new IllegalArgumentException("y")).getError().getMessage());
+        assertEquals("IntResult{" + ex + '}', failed.toString());
+        assertEquals("DoubleResult{1.5}", DoubleResult.ok(1.5).toString());
+    }
+
+    @Test
+    void mapperErrorsBecomeFailure() {
+        assertTrue(IntResult.ok(1).map(v -> v / 0).getError() instanceof ArithmeticException);
+        assertTrue(IntResult.ok(1).mapToObj(v -> null).getError() instanceof NullPointerException);
+        assertTrue(IntResult.with(() -> Integer.parseInt("x")).getError() instanceof NumberFormatException);
+    }
+
+    @Test
+    void fromResult() {
+        assertEquals(3, Result.ok("abc").mapToInt(String::length).getOrThrow());
+        assertTrue(Result.<String>nothing().mapToLong(String::length).isNothing());
+        final IllegalStateException ex = new IllegalStateException();
+        assertSame(ex, Result.<String>error(ex).mapToDouble(String::length).getError());
+        final IntResult both = Result.done("ab", ex).mapToInt(String::length);
+        assertEquals(2, both.getAsInt());
+        assertSame(ex, both.getError());
+    }
+}
@@ -0,0 +1,117 @@
+package units.element;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-06-02
+ */
+class ResultCacheTest {
+    final AtomicLong clock = new AtomicLong(1_000_000);
+
+    ResultCache.TinyLfuCache<Integer, String> cache(int maxSize, long successTtl, long failureTtl,
+                                                   Function<Integer, Result<String>> loader) {
+        return new ResultCache.TinyLfuCache<>(maxSize, successTtl, failureTtl, loader, clock::get);
+    }
+
+    @Test
+    void negativeCaching() {
+        final AtomicInteger loads = new AtomicInteger();
+        final ResultCache.TinyLfuCache<Integer, String> c = cache(8, 1000, 10, k -> {
+            loads.incrementAndGet();
+            return k < 0 ? Result.error(Errors.notExists("no {}", k)) : Result.ok("v" + k);
+        });
+        assertTrue(c.get(-1).hasError());
+        assertTrue(c.get(-1).hasError());
+        assertEquals(1, loads.get());
+        clock.addAndGet(10);
+        c.get(-1);
+        assertEquals(2, loads.get());
+        assertEquals("v1", c.get(1).getOrThrow());
+        clock.addAndGet(10);
+        c.get(1);
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void errorOfLoaderIsNotCached() throws Exception {
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger loads = new AtomicInteger();
+        final ResultCache.TinyLfuCache<Integer, String> c = cache(8, 1000, 1000, k -> {
+            if (loads.incrementAndGet() == 1) {
+                loading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                throw new AssertionError("boom");
+            }
+            return Result.ok("ok");
+        });
+        final CompletableFuture<Throwable> first = CompletableFuture.supplyAsync(() -> {
+            try {
+                c.get(1);
+                return null;
+            } catch (AssertionError e) {
+                return e;
+            }
+        });
+        loading.await();
+        final CompletableFuture<Result<String>> waiter = CompletableFuture.supplyAsync(() -> c.get(1));
+        Thread.sleep(50);
+        release.countDown();
+        assertTrue(first.get(5, TimeUnit.SECONDS) instanceof AssertionError);
+        final Result<String> waited = waiter.get(5, TimeUnit.SECONDS);
+        assertTrue(waited.hasError() || "ok".equals(waited.getValue()));
+        assertEquals("ok", c.get(1).getOrThrow());
+    }
+
+    @Test
+    void orderQueueStaysBounded() {
+        final ResultCache.TinyLfuCache<Integer, String> c = cache(4, 1000, 1000, k -> Result.ok("v" + k));
+        for (int i = 0; i < 100_000; i++) {
+            c.get(1);
+            c.invalidate(1);
+        }
+        assertTrue(c.queued.get() <= 9, "queued " + c.queued.get());
+        assertTrue(c.order.size() <= 9);
+    }
+
+    @Test
+    void expiredEvictedFirst() {
+        final ResultCache.TinyLfuCache<Integer, String> c = cache(2, 1000, 10,
+            k -> k < 0 ? Result.nothing() : Result.ok("v" + k));
+        for (int i = 0; i < 5; i++) c.get(1);
+        c.get(-1);
+        clock.addAndGet(20);
+        // -1 expired, 1 is frequent, a new cold key takes the expired slot
+        c.get(2);
+        assertEquals(2, c.size());
+        assertNotNull(c.getIfPresent(1));
+        assertNotNull(c.getIfPresent(2));
+    }
+
+    @Test
+    void frequentKeysSurviveScan() {
+        final ResultCache.TinyLfuCache<Integer, String> c = cache(100, 1_000_000, 0, k -> Result.ok("v" + k));
+        for (int round = 0; round < 20; round++) for (int k = 0; k < 50; k++) c.get(k);
+        for (int k = 1000; k < 6000; k++) {
+            c.get(k);
+            if (k % 10 == 0) for (int h = 0; h < 50; h += 7) c.get(h);
+        }
+        for (int h = 0; h < 50; h += 7) assertNotNull(c.getIfPresent(h));
+        assertTrue(c.size() <= 100);
+    }
+}
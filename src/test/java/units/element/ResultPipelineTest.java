@@ -0,0 +1,91 @@
+package units.element;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-06-02
+ */
+class ResultPipelineTest {
+    @Test
+    void stagesRunInOrder() {
+        final List<String> calls = new ArrayList<>();
+        final ResultPipeline<Integer, String> pipeline = ResultPipeline.<Integer>of()
+            .map(x -> {
+                calls.add("map " + x);
+                return x + 1;
+            })
+            .flatMap(x -> {
+                calls.add("flatMap " + x);
+                return Result.ok(x * 10);
+            })
+            .peek(x -> calls.add("peek " + x))
+            .map(x -> {
+                calls.add("toString " + x);
+                return "v" + x;
+            });
+        assertEquals(4, pipeline.size());
+        assertEquals("v20", pipeline.apply(1).getOrThrow());
+        assertEquals(asList("map 1", "flatMap 2", "peek 20", "toString 20"), calls);
+        // reusable
+        assertEquals("v30", pipeline.apply(2).getOrThrow());
+    }
+
+    @Test
+    void errorShortCircuits() {
+        final List<String> calls = new ArrayList<>();
+        final IllegalStateException boom = new IllegalStateException("boom");
+        final ResultPipeline<Integer, Integer> pipeline = ResultPipeline.<Integer>of()
+            .map(x -> {
+                if (x < 0) throw boom;
+                return x;
+            })
+            .flatMap(x -> x == 0 ? Result.<Integer>error(new IllegalArgumentException("zero")) : Result.ok(x))
+            .peek(x -> calls.add("peek " + x))
+            .map(x -> {
+                calls.add("map " + x);
+                return x * 2;
+            })
+            .mapError(e -> new RuntimeException(e.getMessage()));
+        final Result<Integer> thrown = pipeline.apply(-1);
+        assertFalse(thrown.isPresent());
+        assertEquals("boom", thrown.getError().getMessage());
+        assertSame(RuntimeException.class, thrown.getError().getClass());
+        final Result<Integer> flat = pipeline.apply(0);
+        assertFalse(flat.isPresent());
+        assertEquals("zero", flat.getError().getMessage());
+        assertTrue(calls.isEmpty());
+        assertEquals(Integer.valueOf(6), pipeline.apply(3).getOrThrow());
+        assertEquals(asList("peek 3", "map 3"), calls);
+    }
+
+    @Test
+    void nothingAndBoth() {
+        final ResultPipeline<Integer, Integer> pipeline = ResultPipeline.<Integer>of()
+            .flatMap(x -> x > 5 ? Result.<Integer>nothing() : Result.ok(x))
+            .map(x -> x + 1);
+        assertTrue(pipeline.apply((Integer) null).isNothing());
+        assertTrue(pipeline.apply(6).isNothing());
+        final IllegalStateException carried = new IllegalStateException("carried");
+        final Result<Integer> both = pipeline.apply(Result.done(1, carried));
+        assertEquals(Integer.valueOf(2), both.getValue());
+        assertSame(carried, both.getError());
+        assertSame(carried, pipeline.apply(Result.<Integer>error(carried)).getError());
+    }
+
+    @Test
+    void filterRejects() {
+        final ResultPipeline<Integer, Integer> pipeline = ResultPipeline.<Integer>of()
+            .filter(x -> x % 2 == 0, x -> new IllegalArgumentException("odd " + x))
+            .map(x -> x / 2);
+        assertEquals(Integer.valueOf(2), pipeline.apply(4).getOrThrow());
+        assertEquals("odd 3", pipeline.apply(3).getError().getMessage());
+    }
+}
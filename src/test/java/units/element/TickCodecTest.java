@@ -0,0 +1,76 @@
+package units.element;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-06-02
+ */
+class TickCodecTest {
+    static long[] ticks(int n) {
+        final long[] ticks = new long[n];
+        long t = Tick.Ticks.KindUtc | 637_580_000_000_000_000L;
+        for (int i = 0; i < n; i++) ticks[i] = t += 10_000 + (i % 7) * 13;
+        return ticks;
+    }
+
+    @Test
+    void roundTrip() {
+        final long[] ticks = ticks(10_000);
+        final byte[] bytes = TickCodec.encode(ticks);
+        final long[] out = new long[ticks.length];
+        assertEquals(ticks.length, TickCodec.decode(ByteBuffer.wrap(bytes), out, 0, out.length));
+        assertArrayEquals(ticks, out);
+        final TickCodec.Decoder decoder = TickCodec.decoder(Channels.newChannel(new ByteArrayInputStream(bytes)));
+        for (long tick : ticks) assertEquals(tick, decoder.nextLong());
+        assertFalse(decoder.hasNext());
+    }
+
+    @Test
+    void truncatedStreamIsUncheckedEof() {
+        final byte[] bytes = TickCodec.encode(ticks(100));
+        final byte[] cut = Arrays.copyOf(bytes, 5);
+        final UncheckedIOException fromBuffer = assertThrows(UncheckedIOException.class,
+            () -> TickCodec.decoder(ByteBuffer.wrap(cut)).nextLong());
+        assertTrue(fromBuffer.getCause() instanceof EOFException);
+        final TickCodec.Decoder decoder = TickCodec.decoder(Channels.newChannel(new ByteArrayInputStream(cut)));
+        final UncheckedIOException fromChannel = assertThrows(UncheckedIOException.class, decoder::nextLong);
+        assertTrue(fromChannel.getCause() instanceof EOFException);
+    }
+
+    @Test
+    void channelWriteErrorIsUnchecked() {
+        final IOException cause = new IOException("disk full");
+        final WritableByteChannel failing = new WritableByteChannel() {
+            @Override
+            public int write(ByteBuffer src) throws IOException {
+                throw cause;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        final TickCodec.Encoder encoder = TickCodec.encoder(failing);
+        encoder.write(ticks(10), 0, 10);
+        final UncheckedIOException ex = assertThrows(UncheckedIOException.class, encoder::flush);
+        assertSame(cause, ex.getCause());
+    }
+}
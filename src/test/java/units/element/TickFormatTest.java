@@ -0,0 +1,49 @@
+package units.element;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-06-02
+ */
+class TickFormatTest {
+    static final DateTimeFormatter ISO = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSSS'Z'")
+        .withZone(ZoneOffset.UTC);
+
+    @Test
+    void formatMatchesDateTimeFormatter() {
+        final Random random = new Random(3);
+        for (int i = 0; i < 10_000; i++) {
+            final Instant instant = Instant.ofEpochSecond(random.nextInt(Integer.MAX_VALUE) * 2L - Integer.MAX_VALUE,
+                random.nextInt(10_000_000) * 100);
+            final long tick = Tick.Ticks.fromUTC(instant);
+            final String expected = ISO.format(instant);
+            assertEquals(expected, TickFormat.format(tick));
+            assertEquals(tick, TickFormat.parse(expected));
+        }
+    }
+
+    @Test
+    void heapAndDirectBuffersAgree() {
+        final long tick = Tick.Ticks.fromUTC(Instant.parse("2021-05-28T09:30:15.1234567Z"));
+        for (ByteBuffer buffer : new ByteBuffer[]{ByteBuffer.allocate(40), ByteBuffer.allocateDirect(40)}) {
+            buffer.position(5);
+            TickFormat.format(tick, buffer);
+            assertEquals(5 + TickFormat.LENGTH, buffer.position());
+            final byte[] out = new byte[TickFormat.LENGTH];
+            buffer.position(5);
+            buffer.get(out);
+            assertEquals("2021-05-28T09:30:15.1234567Z", new String(out, StandardCharsets.US_ASCII));
+        }
+    }
+}
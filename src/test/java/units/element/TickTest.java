@@ -0,0 +1,115 @@
+package units.element;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-06-02
+ */
+class TickTest {
+    @Test
+    void betweenAnySpan() {
+        final Instant first = Instant.parse("0001-01-01T00:00:00.0000001Z");
+        final Instant second = Instant.parse("9999-12-31T23:59:59.9999999Z");
+        final long a = Tick.Ticks.fromUTC(first);
+        final long b = Tick.Ticks.fromUTC(second);
+        assertEquals(Duration.between(first, second), Tick.Ticks.between(a, b));
+        assertEquals(Duration.between(second, first), Tick.Ticks.between(b, a));
+        final Instant near = Instant.parse("2021-06-02T01:02:03.4567891Z");
+        final long c = Tick.Ticks.fromUTC(near);
+        assertEquals(Duration.between(near, second), Tick.Ticks.between(c, b));
+        final Instant later = Instant.parse("2121-06-02T01:02:03.4567891Z");
+        assertEquals(Duration.between(near, later).toNanos(), Tick.Ticks.durationNanos(c, Tick.Ticks.fromUTC(later)));
+    }
+
+    static long[] ticks(int n) {
+        final Random random = new Random(3);
+        final long from = Tick.Ticks.fromUTC(Instant.parse("1700-01-01T00:00:00Z")) & Tick.Ticks.TicksMask;
+        final long to = Tick.Ticks.fromUTC(Instant.parse("2200-01-01T00:00:00Z")) & Tick.Ticks.TicksMask;
+        final long[] ticks = new long[n];
+        for (int i = 0; i < n; i++) ticks[i] = (from + (long) (random.nextDouble() * (to - from))) | Tick.Ticks.KindUtc;
+        return ticks;
+    }
+
+    @Test
+    void bulkMatchesInstant() {
+        final long[] ticks = ticks(1000);
+        ticks[0] = Tick.Ticks.fromUTC(Instant.EPOCH);
+        ticks[1] = Tick.Ticks.fromUTC(Instant.parse("1969-12-31T23:59:59.9999999Z"));
+        final long[] millis = Tick.Ticks.toEpochMillis(ticks);
+        final long[] nanos = Tick.Ticks.toEpochNanos(ticks);
+        final Instant[] instants = Tick.Ticks.toInstants(ticks);
+        for (int i = 0; i < ticks.length; i++) {
+            final Instant instant = Tick.Ticks.toInstant(ticks[i]);
+            assertEquals(instant, instants[i]);
+            assertEquals(instant.getEpochSecond() * 1_000_000_000L + instant.getNano(), nanos[i]);
+            assertEquals(Math.floorDiv(nanos[i], 1_000_000L), millis[i]);
+        }
+        assertArrayEquals(ticks, Tick.Ticks.fromEpochNanos(nanos));
+        final long[] back = Tick.Ticks.fromEpochMillis(millis);
+        for (int i = 0; i < ticks.length; i++) {
+            final long truncated = (ticks[i] & Tick.Ticks.TicksMask) / 10_000L * 10_000L;
+            assertEquals(truncated | Tick.Ticks.KindUtc, back[i]);
+        }
+    }
+
+    @Test
+    void parallelMatchesSequential() {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final long[] ticks = ticks(10_001);
+            final long[] millis = new long[ticks.length];
+            final long[] nanos = new long[ticks.length];
+            final Instant[] instants = new Instant[ticks.length];
+            Tick.Ticks.parallelToEpochMillis(ticks, millis, pool, 16);
+            Tick.Ticks.parallelToEpochNanos(ticks, nanos, pool, 16);
+            Tick.Ticks.parallelToInstants(ticks, instants, pool, 16);
+            assertArrayEquals(Tick.Ticks.toEpochMillis(ticks), millis);
+            assertArrayEquals(Tick.Ticks.toEpochNanos(ticks), nanos);
+            assertArrayEquals(Tick.Ticks.toInstants(ticks), instants);
+            final long[] fromNanos = new long[ticks.length];
+            Tick.Ticks.parallelFromEpochNanos(nanos, fromNanos, pool, 1);
+            assertArrayEquals(ticks, fromNanos);
+            final long[] fromMillis = new long[ticks.length];
+            Tick.Ticks.parallelFromEpochMillis(millis, fromMillis, pool);
+            assertArrayEquals(Tick.Ticks.fromEpochMillis(millis), fromMillis);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void bulkRangeChecked() {
+        final long[] src = new long[4];
+        assertThrows(IndexOutOfBoundsException.class, () -> Tick.Ticks.toEpochMillis(src, 2, new long[4], 0, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> Tick.Ticks.toEpochMillis(src, 0, new long[2], 0, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> Tick.Ticks.toEpochMillis(src, 0, new long[4], 0, -1));
+        assertThrows(IndexOutOfBoundsException.class,
+            () -> Tick.Ticks.parallelToEpochNanos(src, new long[3], ForkJoinPool.commonPool()));
+        final long[] one = {Tick.Ticks.fromUTC(Instant.parse("2021-06-02T00:00:00Z"))};
+        final long[] dst = new long[1];
+        Tick.Ticks.toEpochMillis(one, 0, dst, 0, 0);
+        assertEquals(0, dst[0]);
+    }
+
+    @Test
+    void bulkOverflowThrows() {
+        final long[] far = {Tick.Ticks.fromUTC(Instant.parse("2300-01-01T00:00:00Z"))};
+        assertThrows(ArithmeticException.class, () -> Tick.Ticks.toEpochNanos(far));
+        final long[] old = {Tick.Ticks.fromUTC(Instant.parse("1600-01-01T00:00:00Z"))};
+        assertThrows(ArithmeticException.class, () -> Tick.Ticks.toEpochNanos(old));
+        final long yearOne = Instant.parse("0001-01-01T00:00:00Z").toEpochMilli();
+        assertEquals(Tick.Ticks.KindUtc, Tick.Ticks.fromEpochMillis(new long[]{yearOne})[0]);
+        assertThrows(IllegalArgumentException.class, () -> Tick.Ticks.fromEpochMillis(new long[]{yearOne - 1}));
+        assertThrows(IllegalArgumentException.class, () -> Tick.Ticks.fromEpochMillis(new long[]{Long.MAX_VALUE}));
+        assertThrows(IllegalArgumentException.class, () -> Tick.Ticks.fromEpochMillis(new long[]{Long.MIN_VALUE}));
+    }
+}
@@ -0,0 +1,128 @@
+package units.element;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-06-02
+ */
+class TickTimerTest {
+    /**
+     * ticks of one unit at 1 millisecond resolution
+     */
+    static final long UNIT = 10_000;
+    final AtomicLong clock = new AtomicLong(Tick.Ticks.fromUTC(Instant.parse("2021-06-02T00:00:00Z")));
+
+    TickTimer.WheelTimer timer() {
+        return (TickTimer.WheelTimer) TickTimer.create(1, TimeUnit.MILLISECONDS, clock::get);
+    }
+
+    static void await(BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    void cascadeFiresAtExactUnit() throws Exception {
+        try (TickTimer.WheelTimer timer = timer()) {
+            final long start = timer.unitOf(clock.get());
+            final long[] delays = {1, 2, 63, 64, 65, 127, 4095, 4096, 4097, 262_143, 262_144, 262_149,
+                16_777_215, 16_777_216, 20_000_000};
+            final ConcurrentHashMap<Long, Long> fired = new ConcurrentHashMap<>();
+            for (long delay : delays) {
+                // half a unit after the unit start, rounds up to the next unit
+                final long deadline = clock.get() + delay * UNIT - UNIT / 2;
+                timer.schedule(deadline, () -> fired.put(delay, timer.current));
+            }
+            assertEquals(delays.length, timer.pending());
+            clock.addAndGet(30_000_000L * UNIT);
+            await(() -> timer.pending() == 0);
+            assertEquals(delays.length, fired.size());
+            for (long delay : delays) assertEquals(start + delay, (long) fired.get(delay), "delay " + delay);
+        }
+    }
+
+    @Test
+    void neverFiresEarly() throws Exception {
+        try (TickTimer.WheelTimer timer = timer()) {
+            final AtomicInteger runs = new AtomicInteger();
+            final TickTimer.Timeout timeout = timer.schedule(100, TimeUnit.MILLISECONDS, runs::incrementAndGet);
+            clock.addAndGet(99 * UNIT);
+            Thread.sleep(30);
+            assertEquals(0, runs.get());
+            assertFalse(timeout.isExpired());
+            clock.addAndGet(UNIT);
+            await(timeout::isExpired);
+            assertEquals(1, runs.get());
+            assertFalse(timeout.cancel());
+            // a deadline already passed fires on the next drain
+            final TickTimer.Timeout past = timer.schedule(clock.get() - 5 * UNIT, runs::incrementAndGet);
+            await(past::isExpired);
+            assertEquals(2, runs.get());
+        }
+    }
+
+    @Test
+    void cancelled() throws Exception {
+        try (TickTimer.WheelTimer timer = timer()) {
+            final AtomicInteger runs = new AtomicInteger();
+            final TickTimer.Timeout near = timer.schedule(clock.get() + 3 * UNIT, runs::incrementAndGet);
+            final TickTimer.Timeout far = timer.schedule(clock.get() + 5000 * UNIT, runs::incrementAndGet);
+            final TickTimer.Timeout kept = timer.schedule(clock.get() + 5000 * UNIT, runs::incrementAndGet);
+            assertEquals(3, timer.pending());
+            assertTrue(near.cancel());
+            assertFalse(near.cancel());
+            assertTrue(far.cancel());
+            assertTrue(near.isCancelled());
+            assertEquals(1, timer.pending());
+            clock.addAndGet(6000 * UNIT);
+            await(kept::isExpired);
+            assertEquals(1, runs.get());
+            assertFalse(far.isExpired());
+        }
+    }
+
+    @Test
+    void timeoutCompletesFuture() throws Exception {
+        try (TickTimer.WheelTimer timer = timer()) {
+            final CompletableFuture<String> late = timer.timeout(clock.get() + 10 * UNIT, new CompletableFuture<>());
+            final CompletableFuture<String> early = timer.timeout(clock.get() + 10 * UNIT, new CompletableFuture<>());
+            early.complete("done");
+            await(() -> timer.pending() == 1);
+            clock.addAndGet(10 * UNIT);
+            final ExecutionException ex = assertThrows(ExecutionException.class, () -> late.get(10, TimeUnit.SECONDS));
+            assertTrue(ex.getCause() instanceof Errors.TimeoutError);
+            assertEquals("done", early.get());
+        }
+    }
+
+    @Test
+    void closedTimerRunsNothing() throws Exception {
+        final TickTimer.WheelTimer timer = timer();
+        final AtomicInteger runs = new AtomicInteger();
+        timer.schedule(clock.get() + UNIT, runs::incrementAndGet);
+        timer.close();
+        timer.driver.join(5000);
+        assertFalse(timer.driver.isAlive());
+        assertEquals(0, timer.pending());
+        final TickTimer.Timeout after = timer.schedule(clock.get(), runs::incrementAndGet);
+        assertTrue(after.isCancelled());
+        clock.addAndGet(10 * UNIT);
+        assertEquals(0, runs.get());
+    }
+}
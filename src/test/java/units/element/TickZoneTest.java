@@ -0,0 +1,101 @@
+package units.element;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.time.zone.ZoneOffsetTransition;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-06-02
+ */
+class TickZoneTest {
+    static final ZoneId[] ZONES = {ZoneId.of("Europe/Berlin"), ZoneId.of("America/New_York"),
+        ZoneId.of("Australia/Lord_Howe"), ZoneId.of("Asia/Shanghai"), ZoneOffset.ofHours(-3)};
+
+    /**
+     * wall clock times around each transition of a year: before, inside and after gaps and overlaps
+     */
+    static List<LocalDateTime> aroundTransitions(ZoneId zone, int year) {
+        final List<LocalDateTime> out = new ArrayList<>();
+        final Instant start = LocalDate.of(year, 1, 1).atStartOfDay(zone).toInstant();
+        ZoneOffsetTransition t = zone.getRules().nextTransition(start);
+        while (t != null && t.getDateTimeBefore().getYear() == year) {
+            for (LocalDateTime edge : new LocalDateTime[]{t.getDateTimeBefore(), t.getDateTimeAfter()}) {
+                for (long nanos : new long[]{-1_000_000_000L, -100, 0, 100, 1_000_000_000L, 1_500_000_000L}) {
+                    out.add(edge.plusNanos(nanos));
+                }
+            }
+            t = zone.getRules().nextTransition(t.getInstant());
+        }
+        return out;
+    }
+
+    @Test
+    void gapAndOverlapMatchZonedDateTime() {
+        for (ZoneId zone : ZONES) {
+            // cached range, and a narrow cache so these years fall back to the rules
+            for (TickZone tz : new TickZone[]{TickZone.of(zone), TickZone.of(zone, 1990, 1990)}) {
+                for (int year : new int[]{1950, 2021, 2099}) {
+                    for (LocalDateTime dateTime : aroundTransitions(zone, year)) {
+                        final Instant expected = ZonedDateTime.of(dateTime, zone).toInstant();
+                        final long binary = tz.toBinary(dateTime);
+                        assertTrue(Tick.Ticks.isLocal(binary));
+                        assertEquals(expected, Tick.Ticks.toInstant(binary), () -> zone + " " + dateTime);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void localDateTimeMatchesInstant() {
+        final Random random = new Random(11);
+        final long from = Instant.parse("1850-01-01T00:00:00Z").getEpochSecond();
+        final long to = Instant.parse("2150-01-01T00:00:00Z").getEpochSecond();
+        for (ZoneId zone : ZONES) {
+            final TickZone tz = TickZone.of(zone);
+            for (int i = 0; i < 2000; i++) {
+                final Instant instant = Instant.ofEpochSecond(from + (long) (random.nextDouble() * (to - from)),
+                    random.nextInt(10_000_000) * 100);
+                final LocalDateTime expected = LocalDateTime.ofInstant(instant, zone);
+                final long utc = Tick.Ticks.fromUTC(instant);
+                assertEquals(expected, tz.toLocalDateTime(utc), () -> zone + " " + instant);
+                final long local = Tick.Ticks.from(instant, true);
+                assertEquals(expected, tz.toLocalDateTime(local));
+                assertEquals(expected, Tick.of(local).toLocalDateTime(tz));
+                // round trip is exact outside overlaps
+                final Instant back = Tick.Ticks.toInstant(tz.toBinary(expected));
+                assertEquals(ZonedDateTime.of(expected, zone).toInstant(), back);
+            }
+        }
+    }
+
+    @Test
+    void unspecifiedKindAsIs() {
+        final TickZone tz = TickZone.of(ZoneId.of("Europe/Berlin"));
+        final long plain = Tick.Ticks.fromUTC(Instant.parse("2021-06-02T00:00:00Z")) & Tick.Ticks.TicksMask;
+        assertEquals(plain, tz.toLocalTicks(plain));
+        assertThrows(IllegalArgumentException.class, () -> TickZone.of(ZoneOffset.UTC, 2001, 2000));
+    }
+
+    @Test
+    void useChangesCurrent() {
+        final TickZone previous = TickZone.current();
+        try {
+            TickZone.use(ZoneId.of("Asia/Shanghai"));
+            assertEquals(ZoneId.of("Asia/Shanghai"), TickZone.current().getZone());
+            final LocalDateTime dateTime = LocalDateTime.of(2021, 6, 2, 8, 0);
+            assertEquals(Instant.parse("2021-06-02T00:00:00Z"), Tick.from(dateTime).toInstant());
+            assertEquals(dateTime, Tick.from(dateTime).toLocalDateTime());
+        } finally {
+            TickZone.Zones.CURRENT.set(previous);
+        }
+    }
+}
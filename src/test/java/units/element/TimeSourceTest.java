@@ -0,0 +1,73 @@
+package units.element;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Zen.Liu
+ * @apiNote
+ * @since 2021-06-02
+ */
+class TimeSourceTest {
+    static final long SECOND_TICKS = 10_000_000L;
+
+    @Test
+    void systemFollowsClock() {
+        final long tick = TimeSource.system().tick();
+        assertEquals(Tick.Ticks.KindUtc, tick & ~Tick.Ticks.TicksMask);
+        assertTrue(Math.abs(tick - Tick.Ticks.fromUTC(Instant.now())) < SECOND_TICKS);
+        assertTrue(Duration.between(TimeSource.system().instant(), Instant.now()).abs().getSeconds() < 1);
+    }
+
+    @Test
+    void cachedRefreshesAndFreezes() throws Exception {
+        try (TimeSource.CachedTime cached = TimeSource.cached(1, TimeUnit.MILLISECONDS)) {
+            assertEquals(TimeUnit.MILLISECONDS.toNanos(1), cached.getResolutionNanos());
+            final long first = cached.tick();
+            assertTrue(Math.abs(first - TimeSource.system().tick()) < SECOND_TICKS);
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (cached.tick() == first && System.nanoTime() < deadline) Thread.sleep(5);
+            assertTrue(cached.tick() > first);
+            cached.close();
+            cached.updater.join(5000);
+            assertFalse(cached.updater.isAlive());
+            final long frozen = cached.tick();
+            Thread.sleep(20);
+            assertEquals(frozen, cached.tick());
+        }
+        assertThrows(IllegalArgumentException.class, () -> TimeSource.cached(99, TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    void monotonicNeverGoesBack() {
+        final TimeSource monotonic = TimeSource.monotonic();
+        long last = monotonic.tick();
+        assertEquals(Tick.Ticks.KindUtc, last & ~Tick.Ticks.TicksMask);
+        assertTrue(Math.abs(last - TimeSource.system().tick()) < SECOND_TICKS);
+        for (int i = 0; i < 100_000; i++) {
+            final long tick = monotonic.tick();
+            assertTrue(tick >= last);
+            last = tick;
+        }
+    }
+
+    @Test
+    void useChangesNow() {
+        final TimeSource previous = TimeSource.current();
+        final long frozen = Tick.Ticks.fromUTC(Instant.parse("2021-06-02T00:00:00Z"));
+        try {
+            TimeSource.use(() -> frozen);
+            assertEquals(frozen, Tick.now().toLong());
+            assertEquals(Instant.parse("2021-06-02T00:00:00Z"), TimeSource.current().instant());
+        } finally {
+            TimeSource.use(previous);
+        }
+        assertNotEquals(frozen, Tick.now().toLong());
+        assertThrows(NullPointerException.class, () -> TimeSource.use(null));
+    }
+}